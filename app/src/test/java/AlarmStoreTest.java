@@ -0,0 +1,209 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlarmStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoresTheSameAlarmsFromSnapshotAndJournal() throws IOException {
+        ClockEngine engine = new ClockEngine();
+        AlarmStore store = attach(engine);
+        Alarm daily = alarm("07:00:00", "a.wav", Recurrence.daily());
+        Alarm weekdays = alarm("07:30:00", "tunes/b, \"c\".wav", Recurrence.daysOfWeek(Recurrence.WEEKDAYS));
+        Alarm removed = alarm("08:00:00", "a.wav", Recurrence.once());
+        engine.addAlarm(daily);
+        engine.addAlarm(weekdays);
+        engine.addAlarm(removed);
+        for (int i = 0; i < 100; i++) {
+            engine.addAlarm(i * 60, "bulk.wav", 1, 1);
+        }
+        engine.removeAlarm(removed);
+        engine.updateAlarm(daily, 6 * 3600 + 45 * 60, "edited.wav", 9, 4, Recurrence.daily());
+        // Everything so far goes into the snapshot, the rest into the new journal.
+        store.compactSoon();
+        engine.addAlarm(alarm("09:15:00", "d.wav", Recurrence.monthly(31)));
+        List<String> saved = describe(engine.getAlarms());
+        store.close();
+
+        assertTrue(Files.exists(dir.resolve("alarms.snapshot")));
+        ClockEngine restored = new ClockEngine();
+        attach(restored).close();
+
+        assertEquals(saved, describe(restored.getAlarms()));
+        assertEquals(103, restored.getAlarmCount());
+    }
+
+    @Test
+    void aRecordTornBeforeItsLengthWasWrittenIsIgnored() throws IOException {
+        writeThreeAlarms();
+
+        tearLastRecord(false);
+
+        assertEquals(List.of("07:00:00", "07:01:00"), restoredTimes());
+    }
+
+    @Test
+    void aRecordWithADamagedPayloadEndsTheJournal() throws IOException {
+        writeThreeAlarms();
+
+        tearLastRecord(true);
+
+        assertEquals(List.of("07:00:00", "07:01:00"), restoredTimes());
+    }
+
+    @Test
+    void appendingResumesWhereADamagedJournalEnds() throws IOException {
+        writeThreeAlarms();
+        tearLastRecord(true);
+
+        ClockEngine engine = new ClockEngine();
+        AlarmStore store = attach(engine);
+        engine.addAlarm(alarm("09:00:00", "a.wav", Recurrence.once()));
+        store.close();
+
+        assertEquals(List.of("07:00:00", "07:01:00", "09:00:00"), restoredTimes());
+    }
+
+    @Test
+    void aPendingSnoozeIsRestoredFromTheJournal() throws IOException {
+        checkSnoozeRestored(false);
+    }
+
+    @Test
+    void aPendingSnoozeIsRestoredFromTheSnapshot() throws IOException {
+        checkSnoozeRestored(true);
+    }
+
+    @Test
+    void aSnoozeThatEndedWhileClosedIsDropped() throws IOException {
+        long now = System.currentTimeMillis() / 1000;
+        snoozeIntervalAlarm(now, false);
+
+        ClockEngine restarted = new ClockEngine();
+        restarted.tick(now + 100);
+        attach(restarted).close();
+
+        Alarm alarm = restarted.getAlarms().get(0);
+        assertFalse(alarm.isSnoozing());
+        assertEquals(0, alarm.snoozedCount);
+    }
+
+    /**
+     * Rings an alarm repeating once a day from {@code now + 5} and snoozes it for a minute,
+     * so the snooze ends at {@code now + 70}.
+     */
+    private void snoozeIntervalAlarm(long now, boolean compact) throws IOException {
+        ClockEngine engine = new ClockEngine();
+        AlarmStore store = attach(engine);
+        Alarm alarm = new Alarm("07:00:00", "a.wav", 1, 2);
+        alarm.setRecurrence(Recurrence.every(86_400, now + 5));
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+        if (compact) {
+            store.compactSoon();
+        }
+        store.close();
+    }
+
+    private void checkSnoozeRestored(boolean compact) throws IOException {
+        long now = System.currentTimeMillis() / 1000;
+        snoozeIntervalAlarm(now, compact);
+
+        ClockEngine restarted = new ClockEngine();
+        List<Alarm> fired = new ArrayList<>();
+        restarted.addListener(new ClockEngine.Listener() {
+            @Override
+            public void onAlarmFired(Alarm alarm) {
+                fired.add(alarm);
+            }
+        });
+        AlarmStore store = attach(restarted);
+        Alarm alarm = restarted.getAlarms().get(0);
+        assertTrue(alarm.isSnoozing());
+        assertEquals(1, alarm.snoozedCount);
+
+        restarted.tick(now + 69);
+        assertTrue(fired.isEmpty());
+        restarted.tick(now + 70);
+        assertEquals(List.of(alarm), fired);
+        assertEquals(1, alarm.snoozedCount);
+        store.close();
+    }
+
+    private void writeThreeAlarms() throws IOException {
+        ClockEngine engine = new ClockEngine();
+        AlarmStore store = attach(engine);
+        engine.addAlarm(alarm("07:00:00", "a.wav", Recurrence.once()));
+        engine.addAlarm(alarm("07:01:00", "a.wav", Recurrence.once()));
+        engine.addAlarm(alarm("07:02:00", "a.wav", Recurrence.once()));
+        store.close();
+    }
+
+    /**
+     * Leaves the journal's last record as a crash part way through appending it would:
+     * with its length not yet written, or with a payload that does not match its checksum.
+     */
+    private void tearLastRecord(boolean damagePayload) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve("alarms.journal"), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int last = 16;
+            for (int position = 16; journal.getInt(position) > 0; position += 8 + journal.getInt(position)) {
+                last = position;
+            }
+            if (damagePayload) {
+                journal.put(last + 9, (byte) (journal.get(last + 9) ^ 0x7F));
+            } else {
+                journal.putInt(last, 0);
+            }
+        }
+    }
+
+    private List<String> restoredTimes() throws IOException {
+        ClockEngine engine = new ClockEngine();
+        attach(engine).close();
+        List<String> times = new ArrayList<>();
+        for (Alarm alarm : engine.getAlarms()) {
+            times.add(alarm.getAlarmTime());
+        }
+        return times;
+    }
+
+    private AlarmStore attach(ClockEngine engine) throws IOException {
+        AlarmStore store = new AlarmStore(dir);
+        engine.attachStore(store);
+        return store;
+    }
+
+    private static Alarm alarm(String time, String tune, Recurrence recurrence) {
+        Alarm alarm = new Alarm(time, tune, 5, 2);
+        alarm.setRecurrence(recurrence);
+        return alarm;
+    }
+
+    private static List<String> describe(List<Alarm> alarms) {
+        List<String> text = new ArrayList<>();
+        for (Alarm alarm : alarms) {
+            text.add(alarm.getAlarmTime() + " " + alarm.getAlarmTune() + " " + alarm.getSnoozeTime() + "/"
+                    + alarm.getNoOfSnoozes() + " " + AlarmTransfer.formatRepeat(alarm.getRecurrence()));
+        }
+        return text;
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlarmTableTest {
+    private static final String TUNE = "tune.wav";
+
+    @Test
+    void bitmapMarksExactlyTheSecondsWithAlarms() {
+        AlarmTable table = new AlarmTable();
+        table.add(0, TUNE, 1, 1);
+        table.add(63, TUNE, 1, 1);
+        table.add(64, TUNE, 1, 1);
+        table.add(AlarmTable.SECONDS_PER_DAY - 1, TUNE, 1, 1);
+
+        for (int second = 0; second < AlarmTable.SECONDS_PER_DAY; second++) {
+            boolean expected = second == 0 || second == 63 || second == 64 || second == AlarmTable.SECONDS_PER_DAY - 1;
+            assertEquals(expected, table.isDue(second), "second " + second);
+        }
+    }
+
+    @Test
+    void rowsInTheSameSecondAreChained() {
+        AlarmTable table = new AlarmTable();
+        int first = table.add(7 * 3600, TUNE, 1, 1);
+        int other = table.add(8 * 3600, TUNE, 1, 1);
+        int second = table.add(7 * 3600, "other.wav", 1, 1);
+
+        assertEquals(List.of(first, second), sorted(rowsAt(table, 7 * 3600)));
+        assertEquals(List.of(other), rowsAt(table, 8 * 3600));
+        assertEquals("other.wav", table.getTune(second));
+    }
+
+    @Test
+    void bitClearsOnlyWhenTheLastRowInItsSecondGoes() {
+        AlarmTable table = new AlarmTable();
+        int first = table.add(100, TUNE, 1, 1);
+        int second = table.add(100, TUNE, 1, 1);
+
+        table.remove(first);
+        assertTrue(table.isDue(100));
+        assertEquals(List.of(second), rowsAt(table, 100));
+
+        table.remove(second);
+        assertFalse(table.isDue(100));
+        assertEquals(AlarmTable.NONE, table.firstAt(100));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void setMovesARowToItsNewSecond() {
+        AlarmTable table = new AlarmTable();
+        int row = table.add(100, TUNE, 1, 1);
+
+        table.set(row, 200, TUNE, 5, 3, Recurrence.once());
+
+        assertFalse(table.isDue(100));
+        assertEquals(List.of(row), rowsAt(table, 200));
+        assertEquals(5, table.getSnoozeMinutes(row));
+        assertEquals(3, table.getMaxSnoozes(row));
+    }
+
+    @Test
+    void removedRowsAreReused() {
+        AlarmTable table = new AlarmTable();
+        int first = table.add(1, TUNE, 1, 1);
+        table.add(2, TUNE, 1, 1);
+
+        table.remove(first);
+        int reused = table.add(3, TUNE, 1, 1);
+
+        assertEquals(first, reused);
+        assertEquals(2, table.size());
+        assertEquals(2, table.getRowCount());
+        assertEquals(List.of(reused), rowsAt(table, 3));
+    }
+
+    @Test
+    void onlyTimeOfDayRecurrencesAreIndexed() {
+        AlarmTable table = new AlarmTable();
+        int daily = table.add(10, TUNE, 1, 1, Recurrence.daily());
+        int weekdays = table.add(20, TUNE, 1, 1, Recurrence.daysOfWeek(Recurrence.WEEKDAYS));
+
+        assertEquals(List.of(daily), rowsAt(table, 10));
+        assertFalse(table.isDue(20));
+        assertEquals(Recurrence.Kind.DAYS_OF_WEEK, table.getRecurrence(weekdays).getKind());
+
+        table.set(weekdays, 20, TUNE, 1, 1, Recurrence.once());
+        assertEquals(List.of(weekdays), rowsAt(table, 20));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        AlarmTable table = new AlarmTable();
+        for (int i = 0; i < 1000; i++) {
+            table.add(i % 10, TUNE + i, 1, 1);
+        }
+
+        assertEquals(1000, table.size());
+        assertEquals(100, rowsAt(table, 3).size());
+        assertEquals(TUNE + 999, table.getTune(999));
+    }
+
+    @Test
+    void snoozeDeadlineSetsAndClearsTheSnoozingFlag() {
+        AlarmTable table = new AlarmTable();
+        int row = table.add(100, TUNE, 1, 3);
+
+        table.setSnoozeState(row, 1, 1_000_060);
+        assertTrue(table.isSnoozing(row));
+        assertEquals(1, table.getSnoozedCount(row));
+        assertEquals(1_000_060, table.getSnoozeUntil(row));
+
+        table.setSnoozeState(row, 1, 0);
+        assertFalse(table.isSnoozing(row));
+        assertEquals(0, table.getSnoozeUntil(row));
+    }
+
+    private static List<Integer> rowsAt(AlarmTable table, int second) {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = table.firstAt(second); row != AlarmTable.NONE; row = table.nextAt(row)) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Integer> sorted(List<Integer> rows) {
+        rows.sort(null);
+        return rows;
+    }
+}
@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlarmTransferTest {
+    private final ClockEngine engine = new ClockEngine();
+    private final AlarmTransfer transfer = new AlarmTransfer(engine);
+
+    @Test
+    void csvQuotedFieldsKeepCommasAndQuotes() throws IOException {
+        AlarmTransfer.Result result = transfer.importCsv(new StringReader(String.join("\n",
+                "time,tune,snooze_minutes,snoozes,repeat",
+                "07:30,\"C:\\Tunes\\wake, up.wav\",5,2,weekdays",
+                "07:45:30,\"say \"\"hi\"\".wav\",,,",
+                "\"08:00\",plain.wav,3,1,\"days:MO+FR\"")));
+
+        assertEquals(3, result.imported);
+        assertEquals(0, result.skipped);
+        List<Alarm> alarms = engine.getAlarms();
+        assertAlarm(alarms.get(0), "07:30:00", "C:\\Tunes\\wake, up.wav", 5, 2, "weekdays");
+        assertAlarm(alarms.get(1), "07:45:30", "say \"hi\".wav", Alarm.DEFAULT_SNOOZE_MINUTES, Alarm.DEFAULT_SNOOZES,
+                "once");
+        assertAlarm(alarms.get(2), "08:00:00", "plain.wav", 3, 1, "days:MO+FR");
+    }
+
+    @Test
+    void csvBadRowsAreSkippedAndTheFirstIsReported() throws IOException {
+        AlarmTransfer.Result result = transfer.importCsv(new StringReader(String.join("\n",
+                "time,tune,snooze_minutes,snoozes,repeat",
+                "# a comment",
+                "",
+                "06:00,good.wav",
+                "25:00,a.wav,1,1,daily",
+                "08:00",
+                "08:15,a.wav,x,1,",
+                "08:30,a.wav,1,1,fortnightly",
+                "09:00,\"good, too.wav\"")));
+
+        assertEquals(2, result.imported);
+        assertEquals(4, result.skipped);
+        assertTrue(result.firstError.startsWith("line 5: "), result.firstError);
+        assertEquals(List.of("06:00:00", "09:00:00"), times(engine.getAlarms()));
+    }
+
+    @Test
+    void csvExportReadsBackTheSame() throws IOException {
+        Alarm alarm = new Alarm("06:30:00", "tunes/a, \"b\".wav", 7, 3);
+        alarm.setRecurrence(Recurrence.monthly(31));
+        engine.addAlarm(alarm);
+        engine.addAlarm(new Alarm("22:15:05", "plain.wav", 1, 1));
+        StringWriter out = new StringWriter();
+        transfer.exportCsv(out);
+
+        ClockEngine other = new ClockEngine();
+        AlarmTransfer.Result result = new AlarmTransfer(other).importCsv(new StringReader(out.toString()));
+
+        assertEquals(2, result.imported);
+        assertAlarm(other.getAlarms().get(0), "06:30:00", "tunes/a, \"b\".wav", 7, 3, "monthly:31");
+        assertAlarm(other.getAlarms().get(1), "22:15:05", "plain.wav", 1, 1, "once");
+    }
+
+    @Test
+    void iCalendarReadsRulesTriggersAndFoldedLines() throws IOException {
+        AlarmTransfer.Result result = transfer.importICalendar(new StringReader(String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "DTSTART:20261019T070000",
+                "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR",
+                "X-CLOCK-SNOOZE:5",
+                "BEGIN:VALARM",
+                "TRIGGER:-PT10M",
+                "ATTACH:file:///tmp/wake%20",
+                " up.wav",
+                "END:VALARM",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20261020",
+                "RRULE:FREQ=MONTHLY;BYMONTHDAY=31",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;TZID=\"Asia/Tokyo\":20261019T083000",
+                "END:VEVENT",
+                "END:VCALENDAR")));
+
+        assertEquals(3, result.imported);
+        List<Alarm> alarms = engine.getAlarms();
+        assertAlarm(alarms.get(0), "06:50:00", "/tmp/wake up.wav", 5, Alarm.DEFAULT_SNOOZES, "days:MO+WE+FR");
+        assertAlarm(alarms.get(1), "00:00:00", AudioService.DEFAULT_TUNE, Alarm.DEFAULT_SNOOZE_MINUTES,
+                Alarm.DEFAULT_SNOOZES, "monthly:31");
+        LocalTime tokyoInLocalTime = ZonedDateTime.of(2026, 10, 19, 8, 30, 0, 0, ZoneId.of("Asia/Tokyo"))
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalTime();
+        assertEquals(tokyoInLocalTime.toSecondOfDay(), alarms.get(2).getSecondOfDay());
+    }
+
+    @Test
+    void iCalendarBadEventsAreSkipped() throws IOException {
+        AlarmTransfer.Result result = transfer.importICalendar(new StringReader(String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "SUMMARY:no start",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20261019T070000",
+                "RRULE:FREQ=YEARLY",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:not-a-time",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20261019T120000Z",
+                "END:VEVENT",
+                "END:VCALENDAR")));
+
+        assertEquals(1, result.imported);
+        assertEquals(3, result.skipped);
+        assertTrue(result.firstError.contains("no DTSTART"), result.firstError);
+        LocalTime noonUtc = LocalTime.ofInstant(Instant.parse("2026-10-19T12:00:00Z"), ZoneId.systemDefault());
+        assertEquals(noonUtc.toSecondOfDay(), engine.getAlarms().get(0).getSecondOfDay());
+    }
+
+    private static void assertAlarm(Alarm alarm, String time, String tune, int snoozeMinutes, int snoozes,
+            String repeat) {
+        assertEquals(time, alarm.getAlarmTime());
+        assertEquals(tune, alarm.getAlarmTune());
+        assertEquals(snoozeMinutes, alarm.getSnoozeTime());
+        assertEquals(snoozes, alarm.getNoOfSnoozes());
+        assertEquals(repeat, AlarmTransfer.formatRepeat(alarm.getRecurrence()));
+    }
+
+    private static List<String> times(List<Alarm> alarms) {
+        return alarms.stream().map(Alarm::getAlarmTime).toList();
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClockEngineRecurrenceTest {
+    private static final int EVERY_DAY = 0b1111111;
+
+    private ClockEngine engine;
+    private long now;
+    private final List<Alarm> fired = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        engine = new ClockEngine();
+        now = System.currentTimeMillis() / 1000;
+        engine.addListener(new ClockEngine.Listener() {
+            @Override
+            public void onAlarmFired(Alarm alarm) {
+                fired.add(alarm);
+            }
+        });
+    }
+
+    @Test
+    void stoppingADailyAlarmKeepsItForTomorrowWithItsSnoozesBack() {
+        int second = ClockEngineSnoozeTest.secondOfDay(now + 5);
+        Alarm alarm = new Alarm(second, "missing.wav", 1, 1);
+        alarm.setRecurrence(Recurrence.daily());
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+        engine.tick(now + 70);
+        assertEquals(2, fired.size());
+
+        engine.stopAlarm(alarm);
+
+        assertEquals(List.of(alarm), engine.getAlarms());
+        assertEquals(second, alarm.getSecondOfDay());
+        assertEquals(0, alarm.snoozedCount);
+        assertFalse(alarm.isSnoozing());
+
+        engine.tick(now + 5 + 86_400);
+        assertEquals(3, fired.size());
+        engine.snoozeAlarm(alarm);
+        assertTrue(alarm.isSnoozing());
+    }
+
+    @Test
+    void aSnoozeTakesThePlaceOfTheNextOccurrenceUntilItRings() {
+        int second = ClockEngineSnoozeTest.secondOfDay(now + 5);
+        Recurrence everyDay = Recurrence.daysOfWeek(EVERY_DAY);
+        Alarm alarm = new Alarm(second, "missing.wav", 1, 3);
+        alarm.setRecurrence(everyDay);
+        engine.addAlarm(alarm);
+
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+        engine.tick(now + 69);
+        assertEquals(1, fired.size());
+        engine.tick(now + 70);
+        assertEquals(2, fired.size());
+        assertEquals(1, alarm.snoozedCount);
+
+        long tomorrow = everyDay.nextAfter(now + 70, second, ZoneId.systemDefault());
+        engine.tick(tomorrow - 1);
+        assertEquals(2, fired.size());
+        engine.tick(tomorrow);
+        assertEquals(3, fired.size());
+        assertEquals(0, alarm.snoozedCount);
+        assertEquals(second, alarm.getSecondOfDay());
+    }
+
+    @Test
+    void stoppingDuringASnoozeDropsItAndRequeuesTheNextOccurrence() {
+        int second = ClockEngineSnoozeTest.secondOfDay(now + 5);
+        Recurrence everyDay = Recurrence.daysOfWeek(EVERY_DAY);
+        Alarm alarm = new Alarm(second, "missing.wav", 1, 3);
+        alarm.setRecurrence(everyDay);
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+
+        engine.stopAlarm(alarm);
+        engine.tick(now + 70);
+        assertEquals(1, fired.size());
+
+        engine.tick(everyDay.nextAfter(now + 70, second, ZoneId.systemDefault()));
+        assertEquals(2, fired.size());
+    }
+
+    @Test
+    void aRepeatingAlarmIsNotRemovedWhenStopped() {
+        Alarm alarm = new Alarm(ClockEngineSnoozeTest.secondOfDay(now + 5), "missing.wav", 1, 1);
+        alarm.setRecurrence(Recurrence.daysOfWeek(EVERY_DAY));
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+
+        engine.stopAlarm(alarm);
+
+        assertEquals(1, engine.getAlarmCount());
+    }
+}
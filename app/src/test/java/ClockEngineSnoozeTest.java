@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the engine's tick by hand, a few seconds ahead of the wall clock it starts from.
+ */
+class ClockEngineSnoozeTest {
+    private ClockEngine engine;
+    private long now;
+    private final List<Alarm> fired = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        engine = new ClockEngine();
+        now = System.currentTimeMillis() / 1000;
+        engine.addListener(new ClockEngine.Listener() {
+            @Override
+            public void onAlarmFired(Alarm alarm) {
+                fired.add(alarm);
+            }
+        });
+    }
+
+    @Test
+    void snoozeRingsAgainAfterItsMinutesWithoutMovingTheAlarm() {
+        Alarm alarm = new Alarm(secondOfDay(now + 5), "missing.wav", 2, 1);
+        engine.addAlarm(alarm);
+
+        engine.tick(now + 10);
+        assertEquals(List.of(alarm), fired);
+
+        engine.snoozeAlarm(alarm);
+        assertTrue(alarm.isSnoozing());
+        engine.tick(now + 10 + 119);
+        assertEquals(1, fired.size());
+
+        engine.tick(now + 10 + 120);
+        assertEquals(2, fired.size());
+        assertEquals(1, alarm.snoozedCount);
+        assertFalse(alarm.isSnoozing());
+        assertEquals(secondOfDay(now + 5), alarm.getSecondOfDay());
+    }
+
+    @Test
+    void noSnoozeIsScheduledOnceTheyAreUsedUp() {
+        Alarm alarm = new Alarm(secondOfDay(now + 5), "missing.wav", 1, 1);
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+        engine.tick(now + 70);
+        assertEquals(2, fired.size());
+
+        engine.snoozeAlarm(alarm);
+        engine.tick(now + 200);
+
+        assertFalse(alarm.isSnoozing());
+        assertEquals(2, fired.size());
+    }
+
+    @Test
+    void editingDropsAPendingSnooze() {
+        Alarm alarm = new Alarm(secondOfDay(now + 5), "missing.wav", 1, 1);
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+
+        engine.updateAlarm(alarm, secondOfDay(now + 3600), "missing.wav", 1, 1, Recurrence.once());
+        engine.tick(now + 70);
+
+        assertFalse(alarm.isSnoozing());
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    void stoppingAOneOffAlarmRemovesIt() {
+        Alarm alarm = new Alarm(secondOfDay(now + 5), "missing.wav", 1, 1);
+        engine.addAlarm(alarm);
+        engine.tick(now + 10);
+        engine.snoozeAlarm(alarm);
+
+        engine.stopAlarm(alarm);
+        engine.tick(now + 70);
+
+        assertEquals(0, engine.getAlarmCount());
+        assertTrue(engine.getAlarms().isEmpty());
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    void unlistedRowsRingThroughATemporaryAlarm() {
+        engine.addAlarm(secondOfDay(now + 5), "missing.wav", 1, 1);
+
+        engine.tick(now + 10);
+
+        assertEquals(1, fired.size());
+        assertTrue(engine.getAlarms().isEmpty());
+        engine.snoozeAlarm(fired.get(0));
+        engine.tick(now + 70);
+        assertEquals(2, fired.size());
+        assertEquals(1, fired.get(1).snoozedCount);
+    }
+
+    static int secondOfDay(long epochSecond) {
+        return LocalTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault()).toSecondOfDay();
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccurrenceQueueTest {
+
+    @Test
+    void popsInDeadlineOrder() {
+        OccurrenceQueue queue = new OccurrenceQueue();
+        Random random = new Random(42);
+        long[] times = new long[500];
+        for (int row = 0; row < times.length; row++) {
+            times[row] = random.nextInt(100_000);
+            queue.schedule(row, times[row]);
+        }
+
+        List<Long> popped = drain(queue);
+
+        assertEquals(times.length, popped.size());
+        for (int i = 1; i < popped.size(); i++) {
+            assertTrue(popped.get(i - 1) <= popped.get(i), "out of order at " + i);
+        }
+    }
+
+    @Test
+    void reschedulingMovesARowBothWays() {
+        OccurrenceQueue queue = new OccurrenceQueue();
+        for (int row = 0; row < 10; row++) {
+            queue.schedule(row, 100 + row * 10);
+        }
+
+        queue.schedule(7, 5);
+        assertEquals(7, queue.peekRow());
+        assertEquals(5, queue.peekTime());
+
+        queue.schedule(7, 1_000);
+        queue.schedule(0, 2_000);
+        assertEquals(1, queue.peekRow());
+        assertEquals(10, queue.size());
+
+        List<Long> popped = drain(queue);
+        assertEquals(1_000L, popped.get(8));
+        assertEquals(2_000L, popped.get(9));
+    }
+
+    @Test
+    void holdsOneDeadlinePerRow() {
+        OccurrenceQueue queue = new OccurrenceQueue();
+        queue.schedule(3, 300);
+        queue.schedule(3, 200);
+
+        assertEquals(1, queue.size());
+        assertEquals(200, queue.peekTime());
+    }
+
+    @Test
+    void removeKeepsTheRestInOrder() {
+        OccurrenceQueue queue = new OccurrenceQueue();
+        Random random = new Random(7);
+        for (int row = 0; row < 200; row++) {
+            queue.schedule(row, random.nextInt(10_000));
+        }
+        for (int row = 0; row < 200; row += 3) {
+            queue.remove(row);
+        }
+        queue.remove(10_000);
+
+        assertFalse(queue.contains(0));
+        assertTrue(queue.contains(1));
+        List<Long> popped = drain(queue);
+        assertEquals(133, popped.size());
+        for (int i = 1; i < popped.size(); i++) {
+            assertTrue(popped.get(i - 1) <= popped.get(i), "out of order at " + i);
+        }
+    }
+
+    @Test
+    void acceptsSparseRowNumbers() {
+        OccurrenceQueue queue = new OccurrenceQueue();
+        queue.schedule(1_000_000, 2);
+        queue.schedule(5, 1);
+
+        assertEquals(5, queue.peekRow());
+        queue.remove(5);
+        assertEquals(1_000_000, queue.peekRow());
+        assertFalse(queue.contains(5));
+    }
+
+    private static List<Long> drain(OccurrenceQueue queue) {
+        List<Long> popped = new ArrayList<>();
+        while (queue.size() > 0) {
+            popped.add(queue.peekTime());
+            queue.remove(queue.peekRow());
+        }
+        return popped;
+    }
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecurrenceTest {
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final int HALF_PAST_TWO = LocalTime.of(2, 30).toSecondOfDay();
+    private static final int HALF_PAST_ONE = LocalTime.of(1, 30).toSecondOfDay();
+    private static final int SEVEN = LocalTime.of(7, 0).toSecondOfDay();
+
+    @Test
+    void aTimeSkippedWhenDstStartsRingsAnHourLater() {
+        // 2026-03-08 02:00 EST jumps to 03:00 EDT, so there is no 02:30.
+        long after = epoch("2026-03-07T12:00", NEW_YORK);
+
+        long next = Recurrence.daily().nextAfter(after, HALF_PAST_TWO, NEW_YORK);
+
+        assertEquals(OffsetDateTime.parse("2026-03-08T03:30-04:00").toEpochSecond(), next);
+        assertEquals(epoch("2026-03-09T02:30", NEW_YORK), Recurrence.daily().nextAfter(next, HALF_PAST_TWO, NEW_YORK));
+    }
+
+    @Test
+    void aTimeRepeatedWhenDstEndsRingsOnce() {
+        // 2026-11-01 01:00-02:00 happens twice; the alarm takes the first (EDT) one.
+        Recurrence sundays = Recurrence.weekly(DayOfWeek.SUNDAY);
+        long after = epoch("2026-10-31T12:00", NEW_YORK);
+
+        long first = sundays.nextAfter(after, HALF_PAST_ONE, NEW_YORK);
+        long next = sundays.nextAfter(first, HALF_PAST_ONE, NEW_YORK);
+
+        assertEquals(OffsetDateTime.parse("2026-11-01T01:30-04:00").toEpochSecond(), first);
+        assertEquals(epoch("2026-11-08T01:30", NEW_YORK), next);
+    }
+
+    @Test
+    void dailyKeepsItsLocalTimeAcrossDst() {
+        long beforeChange = epoch("2026-03-07T07:00", NEW_YORK);
+
+        long next = Recurrence.daily().nextAfter(beforeChange, SEVEN, NEW_YORK);
+
+        assertEquals(epoch("2026-03-08T07:00", NEW_YORK), next);
+        assertEquals(23 * 3600, next - beforeChange);
+    }
+
+    @Test
+    void intervalKeepsItsPeriodAcrossDst() {
+        long anchor = epoch("2026-03-08T00:00", NEW_YORK);
+        Recurrence hourly = Recurrence.every(3600, anchor);
+
+        long next = hourly.nextAfter(anchor + 3 * 3600 - 1, 0, NEW_YORK);
+
+        assertEquals(anchor + 3 * 3600, next);
+        assertEquals(epoch("2026-03-08T04:00", NEW_YORK), next);
+    }
+
+    @Test
+    void monthlyOnTheThirtyFirstFallsBackToTheLastDay() {
+        Recurrence monthly = Recurrence.monthly(31);
+        long january = epoch("2026-01-31T07:00", NEW_YORK);
+
+        long february = monthly.nextAfter(january, SEVEN, NEW_YORK);
+        long march = monthly.nextAfter(february, SEVEN, NEW_YORK);
+        long april = monthly.nextAfter(march, SEVEN, NEW_YORK);
+
+        assertEquals(epoch("2026-02-28T07:00", NEW_YORK), february);
+        assertEquals(epoch("2026-03-31T07:00", NEW_YORK), march);
+        assertEquals(epoch("2026-04-30T07:00", NEW_YORK), april);
+    }
+
+    @Test
+    void monthlyUsesTheLeapDay() {
+        long january = epoch("2028-01-31T07:00", NEW_YORK);
+
+        assertEquals(epoch("2028-02-29T07:00", NEW_YORK), Recurrence.monthly(30).nextAfter(january, SEVEN, NEW_YORK));
+    }
+
+    @Test
+    void monthlyCrossesTheYearEnd() {
+        long december = epoch("2026-12-15T08:00", NEW_YORK);
+
+        assertEquals(epoch("2027-01-15T07:00", NEW_YORK), Recurrence.monthly(15).nextAfter(december, SEVEN, NEW_YORK));
+    }
+
+    @Test
+    void weekdaysSkipTheWeekend() {
+        // 2026-10-16 is a Friday.
+        long friday = epoch("2026-10-16T07:00", NEW_YORK);
+
+        long next = Recurrence.daysOfWeek(Recurrence.WEEKDAYS).nextAfter(friday, SEVEN, NEW_YORK);
+
+        assertEquals(epoch("2026-10-19T07:00", NEW_YORK), next);
+    }
+
+    @Test
+    void nextIsStrictlyAfter() {
+        long sevenToday = epoch("2026-10-14T07:00", NEW_YORK);
+
+        assertEquals(sevenToday, Recurrence.daily().nextAfter(sevenToday - 1, SEVEN, NEW_YORK));
+        assertEquals(epoch("2026-10-15T07:00", NEW_YORK), Recurrence.daily().nextAfter(sevenToday, SEVEN, NEW_YORK));
+    }
+
+    private static long epoch(String localDateTime, ZoneId zone) {
+        return LocalDateTime.parse(localDateTime).atZone(zone).toEpochSecond();
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.LongFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import javax.swing.JLabel;
+
+/**
+ * The application classes live in the unnamed package, which JMH benchmark classes (and any
+ * named package) cannot reference. This adapter sits in the unnamed package and hands the
+ * benchmarks plain java.util.function views of the code under test; see bench.Targets.
+ */
+public final class BenchmarkTargets {
+    private BenchmarkTargets() {
+    }
+
+    public static Supplier<String> clockCurrentTime(String format) {
+        Clock clock = new Clock();
+        clock.setDisplayFormat(format);
+        return clock::getCurrentTime;
+    }
+
+    public static LongToIntFunction clockTick(String format) {
+        Clock clock = new Clock();
+        clock.setDisplayFormat(format);
+        char[] target = new char[16];
+        return epochMillis -> {
+            clock.update(epochMillis);
+            return clock.copyDisplayChars(target);
+        };
+    }
+
+    /**
+     * Returns a tick of the alarm check with {@code alarmCount} daily alarms spread over the
+     * day; each call advances one second and returns how many alarms fired.
+     */
+    public static IntSupplier alarmCheck(int alarmCount) {
+        AlarmTable table = new AlarmTable();
+        Random random = new Random(42);
+        for (int i = 0; i < alarmCount; i++) {
+            table.add(random.nextInt(AlarmTable.SECONDS_PER_DAY), AudioService.DEFAULT_TUNE, 5, 3);
+        }
+        int[] second = {0};
+        return () -> {
+            int secondOfDay = second[0];
+            second[0] = (secondOfDay + 1) % AlarmTable.SECONDS_PER_DAY;
+            if (!table.isDue(secondOfDay)) {
+                return 0;
+            }
+            int fired = 0;
+            for (int row = table.firstAt(secondOfDay); row != AlarmTable.NONE; row = table.nextAt(row)) {
+                fired++;
+            }
+            return fired;
+        };
+    }
+
+    public static Supplier<String> alarmSnooze() {
+        // Alarm.snooze() logs every call; keep the console out of the measurement.
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ClockEngine engine = new ClockEngine();
+        Alarm alarm = new Alarm("07:30:00", AudioService.DEFAULT_TUNE, 5, Integer.MAX_VALUE);
+        engine.addAlarm(alarm);
+        return () -> {
+            engine.snoozeAlarm(alarm);
+            return alarm.getAlarmTime();
+        };
+    }
+
+    public static LongFunction<String> stopwatchFormatTime() {
+        return LapStore::formatTime;
+    }
+
+    /** The per-frame work of StopwatchWindow.updateDisplay() on detached labels. */
+    public static LongUnaryOperator stopwatchUpdateDisplay() {
+        StopwatchDisplay display = new StopwatchDisplay(new JLabel("00:00:00"), new JLabel(".000"));
+        return elapsed -> display.render(elapsed) ? 1 : 0;
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * One tick's alarm check with N daily alarms: the path ClockEngine runs where
+ * ClockApp.checkAlarms() used to scan every alarm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlarmCheckBenchmark {
+    @Param({"10", "1000", "10000", "100000"})
+    public int alarmCount;
+
+    private IntSupplier checkAlarms;
+
+    @Setup
+    public void setup() {
+        checkAlarms = Targets.get("alarmCheck", alarmCount);
+    }
+
+    @Benchmark
+    public int checkAlarms() {
+        return checkAlarms.getAsInt();
+    }
+}
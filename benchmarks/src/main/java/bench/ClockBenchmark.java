@@ -0,0 +1,52 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongToIntFunction;
+import java.util.function.Supplier;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClockBenchmark {
+    @Param({"24-Hour", "12-Hour"})
+    public String format;
+
+    private Supplier<String> currentTime;
+    private LongToIntFunction tick;
+    private long epochMillis;
+
+    @Setup
+    public void setup() {
+        currentTime = Targets.get("clockCurrentTime", format);
+        tick = Targets.get("clockTick", format);
+        epochMillis = System.currentTimeMillis();
+    }
+
+    /** Clock.getCurrentTime() as every view calls it, mostly within an already formatted second. */
+    @Benchmark
+    public String getCurrentTime() {
+        return currentTime.get();
+    }
+
+    /** One second elapsing per call: the per-tick buffer update plus a copy out. */
+    @Benchmark
+    public int tickAndCopy() {
+        epochMillis += 1000;
+        return tick.applyAsInt(epochMillis);
+    }
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class StopwatchBenchmark {
+    private LongFunction<String> formatTime;
+    private LongUnaryOperator updateDisplay;
+    private long elapsed;
+
+    @Setup
+    public void setup() {
+        formatTime = Targets.get("stopwatchFormatTime");
+        updateDisplay = Targets.get("stopwatchUpdateDisplay");
+        elapsed = 3_723_456L;
+    }
+
+    @Benchmark
+    public String formatTime() {
+        elapsed += 7;
+        return formatTime.apply(elapsed);
+    }
+
+    /** One frame at 60 Hz. */
+    @Benchmark
+    public long updateDisplay() {
+        elapsed += 16;
+        return updateDisplay.applyAsLong(elapsed);
+    }
+}
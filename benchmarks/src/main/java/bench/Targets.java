@@ -0,0 +1,28 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Looks up the functional views exposed by the unnamed-package {@code BenchmarkTargets}.
+ * The lookup is reflective but happens once per trial; the benchmarks then call plain
+ * interface methods, which the JIT inlines like a direct call.
+ */
+final class Targets {
+    private Targets() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(String name, Object... args) {
+        try {
+            for (Method method : Class.forName("BenchmarkTargets").getMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == args.length) {
+                    return (T) method.invoke(null, args);
+                }
+            }
+            throw new IllegalArgumentException("No benchmark target " + name);
+        } catch (ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot load benchmark target " + name, e);
+        }
+    }
+}
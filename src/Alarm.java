@@ -0,0 +1,165 @@
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * One alarm's settings as the windows see them. The engine keeps its own compact copy in
+ * an {@link AlarmTable} row, referenced by {@code row} while the alarm is registered.
+ */
+class Alarm {
+    /** Snooze settings for alarms created without them, from any window, file or API. */
+    static final int DEFAULT_SNOOZE_MINUTES = 1;
+    static final int DEFAULT_SNOOZES = 1;
+
+    private int secondOfDay;
+    private String alarmTime;
+    private String alarmTune;
+    private String tuneName;
+    private int snoozeTime;
+    private int noOfSnoozes;
+    private Recurrence recurrence = Recurrence.once();
+    protected int snoozedCount;
+    private volatile AudioService.Playback playback;
+    int row = AlarmTable.NONE;
+    private boolean isSnoozing = false;
+
+    public Alarm(String time, String tune, int snooze, int noOfSnoozes) {
+        this(LocalTime.parse(time).toSecondOfDay(), tune, snooze, noOfSnoozes);
+    }
+
+    public Alarm(int secondOfDay, String tune, int snooze, int noOfSnoozes) {
+        this.secondOfDay = Math.floorMod(secondOfDay, AlarmTable.SECONDS_PER_DAY);
+        this.alarmTune = tune;
+        this.snoozeTime = snooze;
+        this.noOfSnoozes = noOfSnoozes;
+        this.snoozedCount = 0;
+    }
+
+    /**
+     * The time as HH:mm:ss, formatted on first use after a change.
+     */
+    public String getAlarmTime() {
+        if (alarmTime == null) {
+            int minutes = secondOfDay / 60;
+            alarmTime = new String(new char[]{
+                    digit(minutes / 600), digit(minutes / 60 % 10), ':',
+                    digit(minutes % 60 / 10), digit(minutes % 10), ':',
+                    digit(secondOfDay % 60 / 10), digit(secondOfDay % 10)});
+        }
+        return alarmTime;
+    }
+
+    public int getSecondOfDay() {
+        return secondOfDay;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * When this alarm next rings after {@code instant}, in the system time zone.
+     */
+    public Instant nextOccurrenceAfter(Instant instant) {
+        return Instant.ofEpochSecond(recurrence.nextAfter(instant.getEpochSecond(), secondOfDay, ZoneId.systemDefault()));
+    }
+
+    public String getAlarmTune() {
+        return alarmTune;
+    }
+
+    public int getSnoozeTime() {
+        return snoozeTime;
+    }
+
+    public int getNoOfSnoozes() {
+        return noOfSnoozes;
+    }
+
+    public void setAlarmTime(String time) {
+        setSecondOfDay(LocalTime.parse(time).toSecondOfDay());
+    }
+
+    public void setSecondOfDay(int secondOfDay) {
+        this.secondOfDay = Math.floorMod(secondOfDay, AlarmTable.SECONDS_PER_DAY);
+        this.alarmTime = null;
+    }
+
+    public void setAlarmTune(String tune) {
+        this.alarmTune = tune;
+        this.tuneName = null;
+    }
+
+    /**
+     * The file name of the tune, for display.
+     */
+    public String getTuneName() {
+        if (tuneName == null) {
+            tuneName = new File(alarmTune).getName();
+        }
+        return tuneName;
+    }
+
+    public void setSnoozeTime(int snooze) {
+        this.snoozeTime = snooze;
+    }
+
+    public void setNoOfSnoozes(int snoozes) {
+        this.noOfSnoozes = snoozes;
+    }
+
+    /**
+     * Counts a snooze if any are left. The alarm's own time does not move; the engine rings
+     * it again {@link #getSnoozeTime()} minutes from now.
+     */
+    public void snooze() {
+        if (snoozedCount < noOfSnoozes) {
+            snoozedCount++;
+            isSnoozing = true;
+            System.out.println("Alarm snoozed for " + snoozeTime + " minutes.");
+        } else {
+            System.out.println("No more snoozes allowed.");
+        }
+    }
+
+    public void cancelSnooze() {
+        isSnoozing = false;
+    }
+
+    void setSnoozeState(int snoozedCount, boolean snoozing) {
+        this.snoozedCount = snoozedCount;
+        this.isSnoozing = snoozing;
+    }
+
+    public boolean isSnoozing() {
+        return isSnoozing;
+    }
+
+    public void playAlarmTune() {
+        stopAlarmTune();
+        playback = AudioService.shared().play(alarmTune, true);
+    }
+
+    /**
+     * The tune started by the last {@link #playAlarmTune()}, or null once stopped.
+     */
+    public AudioService.Playback getPlayback() {
+        return playback;
+    }
+
+    public void stopAlarmTune() {
+        if (playback != null) {
+            playback.stop();
+            playback = null;
+        }
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
+    }
+}
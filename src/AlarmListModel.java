@@ -0,0 +1,40 @@
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EDT-side mirror of the engine's alarm list, kept in step by the engine's per-alarm
+ * events so that an add, edit or removal only touches the affected row.
+ */
+class AlarmListModel extends AbstractListModel<Alarm> {
+    private final List<Alarm> alarms = new ArrayList<>();
+
+    @Override
+    public int getSize() {
+        return alarms.size();
+    }
+
+    @Override
+    public Alarm getElementAt(int index) {
+        return alarms.get(index);
+    }
+
+    void alarmAdded(int index, Alarm alarm) {
+        alarms.add(index, alarm);
+        fireIntervalAdded(this, index, index);
+    }
+
+    void alarmsAdded(int index, List<Alarm> added) {
+        alarms.addAll(index, added);
+        fireIntervalAdded(this, index, index + added.size() - 1);
+    }
+
+    void alarmUpdated(int index) {
+        fireContentsChanged(this, index, index);
+    }
+
+    void alarmRemoved(int index) {
+        alarms.remove(index);
+        fireIntervalRemoved(this, index, index);
+    }
+}
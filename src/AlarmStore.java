@@ -0,0 +1,449 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps the {@link AlarmTable} on disk as a snapshot plus an append-only journal, both
+ * memory-mapped. Every add, edit, remove, snooze and fire is one checksummed binary record
+ * holding the row's whole state, so replaying a record twice is harmless. The engine only
+ * encodes the record into a staging buffer the store reuses; appending runs on the
+ * "alarm-store" thread, off the tick.
+ * <p>
+ * Compaction copies the table's columns, writes them to a new snapshot (renamed into place
+ * atomically) and starts an empty journal under the snapshot's generation. A journal whose
+ * generation does not match the snapshot predates it and is ignored on load. Restoring maps
+ * the snapshot, bulk-copies each column and replays the journal tail.
+ */
+class AlarmStore {
+    private static final int SNAPSHOT_MAGIC = 0x434C4B53;
+    private static final int JOURNAL_MAGIC = 0x434C4B4A;
+    private static final int VERSION = 1;
+    private static final int JOURNAL_HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int INITIAL_JOURNAL_BYTES = 1 << 20;
+    private static final int INITIAL_STAGING_BYTES = 64 << 10;
+    private static final int RECORD_BYTES = 45;
+    private static final long COMPACT_JOURNAL_BYTES = 8L << 20;
+    private static final long COMPACT_PERIOD_MINUTES = 10;
+
+    static final byte ADD = 1;
+    static final byte EDIT = 2;
+    static final byte REMOVE = 3;
+    static final byte SNOOZE = 4;
+    static final byte FIRE = 5;
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "alarm-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CRC32C crc = new CRC32C();
+    // Records wait in staging as [length][payload] until the store thread swaps it with
+    // draining. Both buffers and the encoded tune paths are reused from record to record.
+    private final Object stagingLock = new Object();
+    private ByteBuffer staging = newStagingBuffer(INITIAL_STAGING_BYTES);
+    private ByteBuffer draining = newStagingBuffer(INITIAL_STAGING_BYTES);
+    private final Map<String, byte[]> tuneBytes = new HashMap<>();
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+    private Supplier<AlarmTable.Columns> columnSource;
+    private long generation;
+    private FileChannel journalChannel;
+    private MappedByteBuffer journal;
+    private int journalEnd;
+    private boolean dirty;
+
+    AlarmStore(Path directory) {
+        snapshotFile = directory.resolve("alarms.snapshot");
+        journalFile = directory.resolve("alarms.journal");
+    }
+
+    /**
+     * The store in {@code -Dclock.dataDir}, or {@code ~/.clock2}.
+     */
+    static AlarmStore openDefault() {
+        String home = System.getProperty("user.home");
+        return new AlarmStore(Paths.get(System.getProperty("clock.dataDir", home + "/.clock2")));
+    }
+
+    /**
+     * Fills an empty {@code table} from the snapshot and journal and opens the journal for
+     * appending. {@code columns} is called on the store thread when compacting, and must
+     * return a consistent copy of the table.
+     */
+    void load(AlarmTable table, Supplier<AlarmTable.Columns> columns) throws IOException {
+        Files.createDirectories(snapshotFile.getParent());
+        columnSource = columns;
+        generation = 0;
+        if (Files.exists(snapshotFile)) {
+            readSnapshot(table);
+        }
+        openJournal(table);
+        table.finishRestore();
+        writer.scheduleWithFixedDelay(this::flush, 1, 1, TimeUnit.SECONDS);
+        writer.scheduleWithFixedDelay(this::compact, COMPACT_PERIOD_MINUTES, COMPACT_PERIOD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Recording: called under the engine's lock, so records are staged in the order the
+    // table changed. Neither call allocates once the staging buffers have grown to fit.
+
+    void record(byte op, AlarmTable table, int row) {
+        synchronized (stagingLock) {
+            byte[] tune = tuneBytes.computeIfAbsent(table.getTune(row), path -> path.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer record = stage(RECORD_BYTES + tune.length);
+            record.put(op).putInt(row)
+                    .putInt(table.getSecondOfDay(row))
+                    .putShort((short) table.getSnoozeMinutes(row))
+                    .put((byte) table.getMaxSnoozes(row))
+                    .put((byte) table.getSnoozedCount(row))
+                    .putLong(table.getSnoozeUntil(row))
+                    .put((byte) (table.isListed(row) ? 1 : 0));
+            putRecurrence(record, table.getRecurrence(row));
+            record.putShort((short) tune.length).put(tune);
+        }
+        signal();
+    }
+
+    void recordRemove(int row) {
+        synchronized (stagingLock) {
+            stage(5).put(REMOVE).putInt(row);
+        }
+        signal();
+    }
+
+    /**
+     * Starts a staged record of {@code length} bytes, growing the staging buffer if it is
+     * full rather than waiting for the store thread.
+     */
+    private ByteBuffer stage(int length) {
+        if (staging.remaining() < 4 + length) {
+            ByteBuffer larger = newStagingBuffer(Math.max(staging.capacity() * 2, staging.position() + 4 + length));
+            staging.flip();
+            staging = larger.put(staging);
+        }
+        return staging.putInt(length);
+    }
+
+    private void signal() {
+        if (drainQueued.compareAndSet(false, true)) {
+            try {
+                writer.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                // Closed, e.g. by the shutdown hook while the windows still had changes to
+                // make: those are not saved.
+            }
+        }
+    }
+
+    private static ByteBuffer newStagingBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Flushes the journal and stops the store thread.
+     */
+    void close() {
+        writer.execute(drainTask);
+        writer.execute(this::flush);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a compaction now rather than at the next period.
+     */
+    void compactSoon() {
+        writer.execute(this::compact);
+    }
+
+    // Store thread
+
+    private void drain() {
+        drainQueued.set(false);
+        ByteBuffer records;
+        synchronized (stagingLock) {
+            records = staging;
+            staging = draining;
+            draining = records;
+        }
+        records.flip();
+        while (records.hasRemaining()) {
+            int length = records.getInt();
+            append(records.array(), records.position(), length);
+            records.position(records.position() + length);
+        }
+        records.clear();
+    }
+
+    private void append(byte[] payload, int offset, int length) {
+        try {
+            int needed = RECORD_HEADER_BYTES + length + 4;
+            if (journalEnd + needed > journal.capacity()) {
+                mapJournal(Math.max(journal.capacity() * 2, journalEnd + needed));
+            }
+            crc.reset();
+            crc.update(payload, offset, length);
+            journal.position(journalEnd + RECORD_HEADER_BYTES);
+            journal.put(payload, offset, length);
+            journal.putInt(0);
+            journal.putInt(journalEnd + 4, (int) crc.getValue());
+            // The length goes in last: a record torn by a crash reads as the end or fails its checksum.
+            journal.putInt(journalEnd, length);
+            journalEnd += RECORD_HEADER_BYTES + length;
+            dirty = true;
+            if (journalEnd > COMPACT_JOURNAL_BYTES) {
+                compact();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void flush() {
+        if (dirty) {
+            journal.force();
+            dirty = false;
+        }
+    }
+
+    private void compact() {
+        if (journalEnd == JOURNAL_HEADER_BYTES && Files.exists(snapshotFile)) {
+            return;
+        }
+        try {
+            AlarmTable.Columns columns = columnSource.get();
+            writeSnapshot(columns, generation + 1);
+            generation++;
+            startJournal();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Snapshot: header, tune paths, the columns back to back, the recurrences, then the
+    // pending snooze deadlines.
+
+    private void writeSnapshot(AlarmTable.Columns columns, long snapshotGeneration) throws IOException {
+        int rows = columns.rowCount;
+        List<byte[]> tunes = new ArrayList<>();
+        long size = 24;
+        for (String path : columns.tunes) {
+            byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+            tunes.add(bytes);
+            size += 2 + bytes.length;
+        }
+        size += (long) rows * (4 + 2 + 1 + 1 + 2 + 1) + 4 + columns.recurrences.size() * 25L
+                + 4 + columns.snoozeDeadlines.size() * 12L;
+
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(snapshotGeneration).putInt(rows).putInt(tunes.size());
+            for (byte[] bytes : tunes) {
+                out.putShort((short) bytes.length).put(bytes);
+            }
+            out.asIntBuffer().put(columns.secondOfDay, 0, rows);
+            out.position(out.position() + rows * 4);
+            out.asShortBuffer().put(columns.snoozeMinutes, 0, rows);
+            out.position(out.position() + rows * 2);
+            out.put(columns.maxSnoozes, 0, rows);
+            out.put(columns.snoozedCount, 0, rows);
+            out.asShortBuffer().put(columns.tune, 0, rows);
+            out.position(out.position() + rows * 2);
+            out.put(columns.flags, 0, rows);
+            out.putInt(columns.recurrences.size());
+            for (Map.Entry<Integer, Recurrence> entry : columns.recurrences.entrySet()) {
+                out.putInt(entry.getKey());
+                putRecurrence(out, entry.getValue());
+            }
+            out.putInt(columns.snoozeDeadlines.size());
+            for (Map.Entry<Integer, Long> entry : columns.snoozeDeadlines.entrySet()) {
+                out.putInt(entry.getKey()).putLong(entry.getValue());
+            }
+            out.force();
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void readSnapshot(AlarmTable table) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            in.order(ByteOrder.LITTLE_ENDIAN);
+            if (in.getInt() != SNAPSHOT_MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not an alarm snapshot: " + snapshotFile);
+            }
+            long snapshotGeneration = in.getLong();
+            int rows = in.getInt();
+            int tuneCount = in.getInt();
+            List<String> tunes = new ArrayList<>(tuneCount);
+            for (int i = 0; i < tuneCount; i++) {
+                tunes.add(getString(in, in.getShort() & 0xFFFF));
+            }
+            int[] secondOfDay = new int[rows];
+            short[] snoozeMinutes = new short[rows];
+            byte[] maxSnoozes = new byte[rows];
+            byte[] snoozedCount = new byte[rows];
+            short[] tune = new short[rows];
+            byte[] flags = new byte[rows];
+            in.asIntBuffer().get(secondOfDay);
+            in.position(in.position() + rows * 4);
+            in.asShortBuffer().get(snoozeMinutes);
+            in.position(in.position() + rows * 2);
+            in.get(maxSnoozes);
+            in.get(snoozedCount);
+            in.asShortBuffer().get(tune);
+            in.position(in.position() + rows * 2);
+            in.get(flags);
+            int recurrenceCount = in.getInt();
+            Map<Integer, Recurrence> recurrences = new HashMap<>();
+            for (int i = 0; i < recurrenceCount; i++) {
+                int row = in.getInt();
+                recurrences.put(row, getRecurrence(in));
+            }
+            int snoozeCount = in.getInt();
+            Map<Integer, Long> snoozeDeadlines = new HashMap<>();
+            for (int i = 0; i < snoozeCount; i++) {
+                int row = in.getInt();
+                snoozeDeadlines.put(row, in.getLong());
+            }
+            table.restoreColumns(new AlarmTable.Columns(rows, secondOfDay, snoozeMinutes, maxSnoozes, snoozedCount,
+                    tune, flags, tunes, recurrences, snoozeDeadlines));
+            generation = snapshotGeneration;
+        }
+    }
+
+    // Journal: header, then [length][crc32c][payload] records; a zero length ends it.
+
+    private void openJournal(AlarmTable table) throws IOException {
+        journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (journalChannel.size() < JOURNAL_HEADER_BYTES) {
+            startJournal();
+            return;
+        }
+        mapJournal(journalChannel.size());
+        if (journal.getInt(0) != JOURNAL_MAGIC || journal.getInt(4) != VERSION || journal.getLong(8) != generation) {
+            // Written before the current snapshot (or not ours): everything in it is already there.
+            startJournal();
+            return;
+        }
+        journalEnd = replay(table);
+        journal.putInt(journalEnd, 0);
+    }
+
+    private int replay(AlarmTable table) {
+        int position = JOURNAL_HEADER_BYTES;
+        while (position + RECORD_HEADER_BYTES <= journal.capacity()) {
+            int length = journal.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > journal.capacity()) {
+                break;
+            }
+            ByteBuffer payload = journal.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            payload.limit(position + RECORD_HEADER_BYTES + length).position(position + RECORD_HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != journal.getInt(position + 4)) {
+                System.out.println("Alarm journal ends with a damaged record at byte " + position);
+                break;
+            }
+            apply(table, payload);
+            position += RECORD_HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void apply(AlarmTable table, ByteBuffer record) {
+        byte op = record.get();
+        int row = record.getInt();
+        if (op == REMOVE) {
+            table.restoreRemove(row);
+            return;
+        }
+        int second = record.getInt();
+        int snoozeMinutes = record.getShort();
+        int maxSnoozes = record.get();
+        int snoozedCount = record.get();
+        long snoozeUntil = record.getLong();
+        boolean listed = record.get() != 0;
+        Recurrence recurrence = getRecurrence(record);
+        String tune = getString(record, record.getShort() & 0xFFFF);
+        table.restoreRow(row, second, tune, snoozeMinutes, maxSnoozes, snoozedCount, snoozeUntil, listed,
+                recurrence);
+    }
+
+    private void startJournal() throws IOException {
+        if (journal == null || journal.capacity() < INITIAL_JOURNAL_BYTES) {
+            mapJournal(INITIAL_JOURNAL_BYTES);
+        }
+        journal.putInt(0, JOURNAL_MAGIC);
+        journal.putInt(4, VERSION);
+        journal.putLong(8, generation);
+        journal.putInt(JOURNAL_HEADER_BYTES, 0);
+        journalEnd = JOURNAL_HEADER_BYTES;
+        journal.force();
+    }
+
+    private void mapJournal(long size) throws IOException {
+        journal = journalChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        journal.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void putRecurrence(ByteBuffer out, Recurrence recurrence) {
+        out.put((byte) recurrence.getKind().ordinal())
+                .putInt(recurrence.getDays())
+                .putLong(recurrence.getPeriodSeconds())
+                .putLong(recurrence.getAnchorEpochSecond());
+    }
+
+    private static Recurrence getRecurrence(ByteBuffer in) {
+        Recurrence.Kind kind = Recurrence.Kind.values()[in.get()];
+        int days = in.getInt();
+        long period = in.getLong();
+        long anchor = in.getLong();
+        switch (kind) {
+            case DAILY:
+                return Recurrence.daily();
+            case DAYS_OF_WEEK:
+                return Recurrence.daysOfWeek(days);
+            case MONTHLY:
+                return Recurrence.monthly(days);
+            case INTERVAL:
+                return Recurrence.every(period, anchor);
+            default:
+                return Recurrence.once();
+        }
+    }
+
+    private static String getString(ByteBuffer in, int length) {
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
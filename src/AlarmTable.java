@@ -0,0 +1,408 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every alarm as one row across parallel primitive arrays: the time as an int second of
+ * the day, snooze settings as a short and two bytes, and the tune as an index into a table
+ * of distinct paths. Rows due in the same second are chained through {@code next}/{@code
+ * prev}, and an 86,400-bit bitmap answers "does anything ring this second?" with one bit
+ * test. A row costs 19 bytes, so a million alarms take about 25 MB including growth slack.
+ * Rows with a recurrence other than once or daily stay out of that index; the engine
+ * queues their next occurrence instead.
+ *
+ * <p>Row numbers are stable for an alarm's lifetime; removed rows are reused. An
+ * {@link Alarm} object is only created for a row when something needs one: a listed row
+ * keeps its view, an unlisted one only holds a view while it rings. Not thread-safe:
+ * {@link ClockEngine} guards it.
+ */
+final class AlarmTable {
+    static final int SECONDS_PER_DAY = 86400;
+    static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte LIVE = 1;
+    private static final byte SNOOZING = 2;
+    private static final byte LISTED = 4;
+    private static final byte DAILY = 8;
+    private static final byte RECURRING = 16;
+
+    private int[] secondOfDay = new int[INITIAL_CAPACITY];
+    private short[] snoozeMinutes = new short[INITIAL_CAPACITY];
+    private byte[] maxSnoozes = new byte[INITIAL_CAPACITY];
+    private byte[] snoozedCount = new byte[INITIAL_CAPACITY];
+    private short[] tune = new short[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+
+    private final int[] firstAtSecond = new int[SECONDS_PER_DAY];
+    private final long[] dueBits = new long[(SECONDS_PER_DAY + 63) / 64];
+    private final List<String> tunes = new ArrayList<>();
+    private final Map<String, Integer> tuneIds = new HashMap<>();
+    private final Map<Integer, Alarm> views = new HashMap<>();
+    private final Map<Integer, Recurrence> recurrences = new HashMap<>();
+    private final Map<Integer, Long> snoozeDeadlines = new HashMap<>();
+    private int rowCount;
+    private int size;
+    private int freeRow = NONE;
+
+    AlarmTable() {
+        Arrays.fill(firstAtSecond, NONE);
+    }
+
+    /**
+     * Adds an alarm and returns its row. Snooze settings are clamped to what the columns hold.
+     */
+    int add(int second, String tunePath, int snoozeTime, int snoozes) {
+        return add(second, tunePath, snoozeTime, snoozes, Recurrence.once());
+    }
+
+    int add(int second, String tunePath, int snoozeTime, int snoozes, Recurrence recurrence) {
+        int row;
+        if (freeRow != NONE) {
+            row = freeRow;
+            freeRow = next[row];
+        } else {
+            if (rowCount == secondOfDay.length) {
+                grow();
+            }
+            row = rowCount++;
+        }
+        flags[row] = LIVE;
+        snoozedCount[row] = 0;
+        write(row, second, tunePath, snoozeTime, snoozes, recurrence);
+        link(row);
+        size++;
+        return row;
+    }
+
+    /**
+     * Overwrites a row's settings, moving it to its new second.
+     */
+    void set(int row, int second, String tunePath, int snoozeTime, int snoozes, Recurrence recurrence) {
+        checkRow(row);
+        unlink(row);
+        write(row, second, tunePath, snoozeTime, snoozes, recurrence);
+        link(row);
+    }
+
+    private void write(int row, int second, String tunePath, int snoozeTime, int snoozes, Recurrence recurrence) {
+        flags[row] &= ~(DAILY | RECURRING);
+        recurrences.remove(row);
+        if (recurrence.getKind() == Recurrence.Kind.DAILY) {
+            flags[row] |= DAILY;
+        } else if (!recurrence.isTimeOfDay()) {
+            flags[row] |= RECURRING;
+            recurrences.put(row, recurrence);
+        }
+        secondOfDay[row] = Math.floorMod(second, SECONDS_PER_DAY);
+        snoozeMinutes[row] = (short) clamp(snoozeTime, Short.MAX_VALUE);
+        maxSnoozes[row] = (byte) clamp(snoozes, Byte.MAX_VALUE);
+        tune[row] = (short) tuneId(tunePath);
+    }
+
+    void remove(int row) {
+        checkRow(row);
+        unlink(row);
+        flags[row] = 0;
+        views.remove(row);
+        recurrences.remove(row);
+        snoozeDeadlines.remove(row);
+        next[row] = freeRow;
+        freeRow = row;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isLive(int row) {
+        return row >= 0 && row < rowCount && (flags[row] & LIVE) != 0;
+    }
+
+    /** Whether any alarm rings at {@code second} of the day; a single bit test. */
+    boolean isDue(int second) {
+        return (dueBits[second >>> 6] & (1L << second)) != 0;
+    }
+
+    /** The first row due at {@code second}, or {@link #NONE}. */
+    int firstAt(int second) {
+        return firstAtSecond[second];
+    }
+
+    /** The row after {@code row} in the same second, or {@link #NONE}. */
+    int nextAt(int row) {
+        return next[row];
+    }
+
+    int getSecondOfDay(int row) {
+        return secondOfDay[row];
+    }
+
+    int getSnoozeMinutes(int row) {
+        return snoozeMinutes[row];
+    }
+
+    int getMaxSnoozes(int row) {
+        return maxSnoozes[row];
+    }
+
+    int getSnoozedCount(int row) {
+        return snoozedCount[row];
+    }
+
+    Recurrence getRecurrence(int row) {
+        if ((flags[row] & RECURRING) != 0) {
+            return recurrences.get(row);
+        }
+        return (flags[row] & DAILY) != 0 ? Recurrence.daily() : Recurrence.once();
+    }
+
+    String getTune(int row) {
+        return tunes.get(tune[row] & 0xFFFF);
+    }
+
+    boolean isSnoozing(int row) {
+        return (flags[row] & SNOOZING) != 0;
+    }
+
+    /** Epoch second at which the row's pending snooze rings, or 0 when it is not snoozing. */
+    long getSnoozeUntil(int row) {
+        return isSnoozing(row) ? snoozeDeadlines.get(row) : 0;
+    }
+
+    /**
+     * Sets how many snoozes the current occurrence has used and when the pending one, if
+     * any, rings; {@code snoozeUntil} is 0 when the row is not snoozing.
+     */
+    void setSnoozeState(int row, int count, long snoozeUntil) {
+        checkRow(row);
+        snoozedCount[row] = (byte) clamp(count, Byte.MAX_VALUE);
+        if (snoozeUntil != 0) {
+            flags[row] |= SNOOZING;
+            snoozeDeadlines.put(row, snoozeUntil);
+        } else {
+            flags[row] &= ~SNOOZING;
+            snoozeDeadlines.remove(row);
+        }
+    }
+
+    /** Whether the row is one of the engine's listed alarms rather than a bulk, view-less row. */
+    boolean isListed(int row) {
+        return (flags[row] & LISTED) != 0;
+    }
+
+    void setListed(int row, boolean listed) {
+        checkRow(row);
+        flags[row] = (byte) (listed ? flags[row] | LISTED : flags[row] & ~LISTED);
+    }
+
+    /** One past the highest row ever used, live or free. */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    Alarm getView(int row) {
+        return views.get(row);
+    }
+
+    void setView(int row, Alarm alarm) {
+        views.put(row, alarm);
+    }
+
+    void removeView(int row) {
+        views.remove(row);
+    }
+
+    /** Bytes held by the columns, the per-second index and the bitmap. */
+    long getFootprintBytes() {
+        long perRow = 4 + 2 + 1 + 1 + 2 + 1 + 4 + 4;
+        return perRow * secondOfDay.length + 4L * firstAtSecond.length + 8L * dueBits.length;
+    }
+
+    /**
+     * A copy of the columns, taken under the engine's lock so an {@link AlarmStore} can
+     * write a snapshot without holding it.
+     */
+    static final class Columns {
+        final int rowCount;
+        final int[] secondOfDay;
+        final short[] snoozeMinutes;
+        final byte[] maxSnoozes;
+        final byte[] snoozedCount;
+        final short[] tune;
+        final byte[] flags;
+        final List<String> tunes;
+        final Map<Integer, Recurrence> recurrences;
+        final Map<Integer, Long> snoozeDeadlines;
+
+        Columns(int rowCount, int[] secondOfDay, short[] snoozeMinutes, byte[] maxSnoozes, byte[] snoozedCount,
+                short[] tune, byte[] flags, List<String> tunes, Map<Integer, Recurrence> recurrences,
+                Map<Integer, Long> snoozeDeadlines) {
+            this.rowCount = rowCount;
+            this.secondOfDay = secondOfDay;
+            this.snoozeMinutes = snoozeMinutes;
+            this.maxSnoozes = maxSnoozes;
+            this.snoozedCount = snoozedCount;
+            this.tune = tune;
+            this.flags = flags;
+            this.tunes = tunes;
+            this.recurrences = recurrences;
+            this.snoozeDeadlines = snoozeDeadlines;
+        }
+
+        boolean isLive(int row) {
+            return (flags[row] & LIVE) != 0;
+        }
+    }
+
+    Columns copyColumns() {
+        return new Columns(rowCount, Arrays.copyOf(secondOfDay, rowCount), Arrays.copyOf(snoozeMinutes, rowCount),
+                Arrays.copyOf(maxSnoozes, rowCount), Arrays.copyOf(snoozedCount, rowCount),
+                Arrays.copyOf(tune, rowCount), Arrays.copyOf(flags, rowCount), new ArrayList<>(tunes),
+                new HashMap<>(recurrences), new HashMap<>(snoozeDeadlines));
+    }
+
+    // Restoring: an empty table takes a snapshot's columns, journal records are replayed onto
+    // exact rows, then finishRestore() rebuilds the free list and the size.
+
+    void restoreColumns(Columns columns) {
+        int capacity = Math.max(INITIAL_CAPACITY, columns.rowCount);
+        secondOfDay = Arrays.copyOf(columns.secondOfDay, capacity);
+        snoozeMinutes = Arrays.copyOf(columns.snoozeMinutes, capacity);
+        maxSnoozes = Arrays.copyOf(columns.maxSnoozes, capacity);
+        snoozedCount = Arrays.copyOf(columns.snoozedCount, capacity);
+        tune = Arrays.copyOf(columns.tune, capacity);
+        flags = Arrays.copyOf(columns.flags, capacity);
+        next = new int[capacity];
+        prev = new int[capacity];
+        rowCount = columns.rowCount;
+        tunes.clear();
+        tuneIds.clear();
+        for (String path : columns.tunes) {
+            tuneIds.put(path, tunes.size());
+            tunes.add(path);
+        }
+        views.clear();
+        recurrences.clear();
+        recurrences.putAll(columns.recurrences);
+        snoozeDeadlines.clear();
+        snoozeDeadlines.putAll(columns.snoozeDeadlines);
+        Arrays.fill(firstAtSecond, NONE);
+        Arrays.fill(dueBits, 0);
+        for (int row = 0; row < rowCount; row++) {
+            if ((flags[row] & LIVE) != 0) {
+                link(row);
+            }
+        }
+    }
+
+    void restoreRow(int row, int second, String tunePath, int snoozeTime, int snoozes, int count, long snoozeUntil,
+                    boolean listed, Recurrence recurrence) {
+        while (row >= secondOfDay.length) {
+            grow();
+        }
+        rowCount = Math.max(rowCount, row + 1);
+        if ((flags[row] & LIVE) != 0) {
+            unlink(row);
+        }
+        flags[row] = LIVE;
+        write(row, second, tunePath, snoozeTime, snoozes, recurrence);
+        setSnoozeState(row, count, snoozeUntil);
+        setListed(row, listed);
+        link(row);
+    }
+
+    void restoreRemove(int row) {
+        if (isLive(row)) {
+            unlink(row);
+            flags[row] = 0;
+            recurrences.remove(row);
+            snoozeDeadlines.remove(row);
+        }
+    }
+
+    void finishRestore() {
+        size = 0;
+        freeRow = NONE;
+        for (int row = rowCount - 1; row >= 0; row--) {
+            if ((flags[row] & LIVE) != 0) {
+                size++;
+            } else {
+                next[row] = freeRow;
+                freeRow = row;
+            }
+        }
+    }
+
+    private void link(int row) {
+        if ((flags[row] & RECURRING) != 0) {
+            return;
+        }
+        int second = secondOfDay[row];
+        int head = firstAtSecond[second];
+        next[row] = head;
+        prev[row] = NONE;
+        if (head != NONE) {
+            prev[head] = row;
+        }
+        firstAtSecond[second] = row;
+        dueBits[second >>> 6] |= 1L << second;
+    }
+
+    private void unlink(int row) {
+        if ((flags[row] & RECURRING) != 0) {
+            return;
+        }
+        int second = secondOfDay[row];
+        if (prev[row] != NONE) {
+            next[prev[row]] = next[row];
+        } else {
+            firstAtSecond[second] = next[row];
+        }
+        if (next[row] != NONE) {
+            prev[next[row]] = prev[row];
+        }
+        if (firstAtSecond[second] == NONE) {
+            dueBits[second >>> 6] &= ~(1L << second);
+        }
+    }
+
+    private int tuneId(String path) {
+        Integer id = tuneIds.get(path);
+        if (id == null) {
+            if (tunes.size() > 0xFFFF) {
+                throw new IllegalStateException("Too many distinct alarm tunes");
+            }
+            id = tunes.size();
+            tunes.add(path);
+            tuneIds.put(path, id);
+        }
+        return id;
+    }
+
+    private void grow() {
+        int capacity = secondOfDay.length + (secondOfDay.length >> 1);
+        secondOfDay = Arrays.copyOf(secondOfDay, capacity);
+        snoozeMinutes = Arrays.copyOf(snoozeMinutes, capacity);
+        maxSnoozes = Arrays.copyOf(maxSnoozes, capacity);
+        snoozedCount = Arrays.copyOf(snoozedCount, capacity);
+        tune = Arrays.copyOf(tune, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (!isLive(row)) {
+            throw new IllegalArgumentException("No alarm at row " + row);
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
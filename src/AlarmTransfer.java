@@ -0,0 +1,592 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk import and export of alarms as CSV or iCalendar. Both directions stream: import
+ * reads a line at a time and hands the engine {@value #BATCH_SIZE} alarms per
+ * {@link ClockEngine#addAlarms} call, so the table, the journal and the alarm window are
+ * updated once per batch; export writes each batch as {@link ClockEngine#forEachAlarm}
+ * produces it. Neither ever holds the whole file in memory.
+ * <p>
+ * CSV rows are {@code time,tune,snooze_minutes,snoozes,repeat}, where repeat is
+ * {@code once}, {@code daily}, {@code weekdays}, {@code weekends}, {@code days:MO+WE},
+ * {@code monthly:15} or {@code every:<seconds>:<anchor epoch second>}. In iCalendar each
+ * VEVENT is one alarm: the time comes from DTSTART shifted by its VALARM's TRIGGER, the
+ * repeat from RRULE, the tune from the VALARM's ATTACH and the snooze settings from
+ * {@code X-CLOCK-SNOOZE} and {@code X-CLOCK-SNOOZES}.
+ */
+class AlarmTransfer {
+    static final int BATCH_SIZE = 2048;
+    private static final String CSV_HEADER = "time,tune,snooze_minutes,snoozes,repeat";
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    private static final DateTimeFormatter ICS_LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final ClockEngine engine;
+
+    /**
+     * Outcome of an import: rows added, rows skipped, and why the first skipped row was.
+     */
+    static final class Result {
+        int imported;
+        int skipped;
+        String firstError;
+
+        @Override
+        public String toString() {
+            String text = "Imported " + imported + " alarm" + (imported == 1 ? "" : "s");
+            return skipped == 0 ? text : text + ", skipped " + skipped + " (first: " + firstError + ")";
+        }
+    }
+
+    AlarmTransfer(ClockEngine engine) {
+        this.engine = engine;
+    }
+
+    static boolean isICalendar(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".ics") || name.endsWith(".ical") || name.endsWith(".ifb");
+    }
+
+    Result importFile(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return isICalendar(file) ? importICalendar(in) : importCsv(in);
+        }
+    }
+
+    /**
+     * Exports every alarm to {@code file}, as iCalendar for .ics names and CSV otherwise.
+     * Returns the number written.
+     */
+    int exportFile(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return isICalendar(file) ? exportICalendar(out) : exportCsv(out);
+        }
+    }
+
+    // CSV
+
+    Result importCsv(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Batch batch = new Batch();
+        List<String> fields = new ArrayList<>(5);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("time,"))) {
+                continue;
+            }
+            try {
+                splitCsv(line, fields);
+                if (fields.size() < 2) {
+                    throw new IllegalArgumentException("expected at least time and tune");
+                }
+                Alarm alarm = new Alarm(parseTime(fields.get(0)), fields.get(1),
+                        intField(fields, 2, Alarm.DEFAULT_SNOOZE_MINUTES), intField(fields, 3, Alarm.DEFAULT_SNOOZES));
+                if (fields.size() > 4 && !fields.get(4).isEmpty()) {
+                    alarm.setRecurrence(parseRepeat(fields.get(4).trim()));
+                }
+                batch.add(alarm);
+            } catch (RuntimeException e) {
+                batch.skip("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    int exportCsv(Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.write('\n');
+        return export(batch -> {
+            for (Alarm alarm : batch) {
+                write(out, alarm.getAlarmTime() + "," + quoteCsv(alarm.getAlarmTune()) + "," + alarm.getSnoozeTime()
+                        + "," + alarm.getNoOfSnoozes() + "," + formatRepeat(alarm.getRecurrence()) + "\n");
+            }
+        });
+    }
+
+    private static void splitCsv(String line, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+    }
+
+    private static int intField(List<String> fields, int index, int fallback) {
+        String value = index < fields.size() ? fields.get(index).trim() : "";
+        return value.isEmpty() ? fallback : Integer.parseInt(value);
+    }
+
+    private static String quoteCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /** HH:mm or HH:mm:ss as a second of the day. */
+    static int parseTime(String text) {
+        String[] parts = text.trim().split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("bad time '" + text + "'");
+        }
+        int hour = Integer.parseInt(parts[0]);
+        int minute = Integer.parseInt(parts[1]);
+        int second = parts.length == 3 ? Integer.parseInt(parts[2]) : 0;
+        if (hour > 23 || minute > 59 || second > 59 || hour < 0 || minute < 0 || second < 0) {
+            throw new IllegalArgumentException("bad time '" + text + "'");
+        }
+        return hour * 3600 + minute * 60 + second;
+    }
+
+    static String formatRepeat(Recurrence recurrence) {
+        switch (recurrence.getKind()) {
+            case DAILY:
+                return "daily";
+            case MONTHLY:
+                return "monthly:" + recurrence.getDays();
+            case INTERVAL:
+                return "every:" + recurrence.getPeriodSeconds() + ":" + recurrence.getAnchorEpochSecond();
+            case DAYS_OF_WEEK:
+                if (recurrence.getDays() == Recurrence.WEEKDAYS) {
+                    return "weekdays";
+                }
+                if (recurrence.getDays() == Recurrence.WEEKENDS) {
+                    return "weekends";
+                }
+                return "days:" + String.join("+", dayCodes(recurrence.getDays()));
+            default:
+                return "once";
+        }
+    }
+
+    static Recurrence parseRepeat(String text) {
+        String lower = text.toLowerCase();
+        if (lower.equals("once")) {
+            return Recurrence.once();
+        }
+        if (lower.equals("daily")) {
+            return Recurrence.daily();
+        }
+        if (lower.equals("weekdays")) {
+            return Recurrence.daysOfWeek(Recurrence.WEEKDAYS);
+        }
+        if (lower.equals("weekends")) {
+            return Recurrence.daysOfWeek(Recurrence.WEEKENDS);
+        }
+        if (lower.startsWith("days:")) {
+            return Recurrence.daysOfWeek(parseDays(text.substring(5).split("\\+")));
+        }
+        if (lower.startsWith("monthly:")) {
+            return Recurrence.monthly(Integer.parseInt(text.substring(8)));
+        }
+        if (lower.startsWith("every:")) {
+            String[] parts = text.split(":");
+            long anchor = parts.length > 2 ? Long.parseLong(parts[2]) : Instant.now().getEpochSecond();
+            return Recurrence.every(Long.parseLong(parts[1]), anchor);
+        }
+        throw new IllegalArgumentException("unknown repeat '" + text + "'");
+    }
+
+    // iCalendar
+
+    Result importICalendar(Reader reader) throws IOException {
+        UnfoldingReader in = new UnfoldingReader(reader);
+        Batch batch = new Batch();
+        Event event = null;
+        boolean inAlarm = false;
+        String line;
+        while ((line = in.readLine()) != null) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = line.substring(0, colon);
+            String value = line.substring(colon + 1).trim();
+            int semicolon = name.indexOf(';');
+            String params = semicolon < 0 ? "" : name.substring(semicolon + 1);
+            name = (semicolon < 0 ? name : name.substring(0, semicolon)).toUpperCase();
+
+            if (name.equals("BEGIN") && value.equalsIgnoreCase("VEVENT")) {
+                event = new Event(in.getLineNumber());
+            } else if (event == null) {
+                continue;
+            } else if (name.equals("BEGIN") && value.equalsIgnoreCase("VALARM")) {
+                inAlarm = true;
+            } else if (name.equals("END") && value.equalsIgnoreCase("VALARM")) {
+                inAlarm = false;
+            } else if (name.equals("END") && value.equalsIgnoreCase("VEVENT")) {
+                try {
+                    batch.add(event.toAlarm());
+                } catch (RuntimeException e) {
+                    batch.skip("event at line " + event.line + ": " + e.getMessage());
+                }
+                event = null;
+            } else if (inAlarm) {
+                if (name.equals("TRIGGER") && !params.toUpperCase().contains("VALUE=DATE-TIME")) {
+                    event.trigger = value;
+                } else if (name.equals("ATTACH")) {
+                    event.tune = value;
+                }
+            } else if (name.equals("DTSTART")) {
+                event.start = value;
+                event.startParams = params;
+            } else if (name.equals("RRULE")) {
+                event.rule = value;
+            } else if (name.equals("X-CLOCK-SNOOZE")) {
+                event.snoozeMinutes = value;
+            } else if (name.equals("X-CLOCK-SNOOZES")) {
+                event.snoozes = value;
+            }
+        }
+        return batch.finish();
+    }
+
+    int exportICalendar(Writer out) throws IOException {
+        out.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//clock2//Alarm export//EN\r\n");
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_LOCAL) + "Z";
+        String today = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+        int[] uid = {0};
+        int count = export(batch -> {
+            StringBuilder text = new StringBuilder(512);
+            for (Alarm alarm : batch) {
+                Recurrence recurrence = alarm.getRecurrence();
+                text.setLength(0);
+                text.append("BEGIN:VEVENT\r\n");
+                text.append("UID:alarm-").append(++uid[0]).append("@clock2\r\n");
+                text.append("DTSTAMP:").append(stamp).append("\r\n");
+                if (recurrence.getKind() == Recurrence.Kind.INTERVAL) {
+                    LocalDateTime anchor = LocalDateTime.ofInstant(
+                            Instant.ofEpochSecond(recurrence.getAnchorEpochSecond()), ZoneId.systemDefault());
+                    text.append("DTSTART:").append(anchor.format(ICS_LOCAL)).append("\r\n");
+                } else {
+                    text.append("DTSTART:").append(today).append('T')
+                            .append(alarm.getAlarmTime().replace(":", "")).append("\r\n");
+                }
+                String rule = formatRule(recurrence);
+                if (rule != null) {
+                    text.append("RRULE:").append(rule).append("\r\n");
+                }
+                text.append("SUMMARY:Alarm ").append(alarm.getAlarmTime()).append("\r\n");
+                text.append("X-CLOCK-SNOOZE:").append(alarm.getSnoozeTime()).append("\r\n");
+                text.append("X-CLOCK-SNOOZES:").append(alarm.getNoOfSnoozes()).append("\r\n");
+                text.append("BEGIN:VALARM\r\nACTION:AUDIO\r\nTRIGGER:PT0S\r\n");
+                appendFolded(text, "ATTACH:" + alarm.getAlarmTune());
+                text.append("END:VALARM\r\nEND:VEVENT\r\n");
+                write(out, text.toString());
+            }
+        });
+        out.write("END:VCALENDAR\r\n");
+        return count;
+    }
+
+    private static String formatRule(Recurrence recurrence) {
+        switch (recurrence.getKind()) {
+            case DAILY:
+                return "FREQ=DAILY";
+            case DAYS_OF_WEEK:
+                return "FREQ=WEEKLY;BYDAY=" + String.join(",", dayCodes(recurrence.getDays()));
+            case MONTHLY:
+                return "FREQ=MONTHLY;BYMONTHDAY=" + recurrence.getDays();
+            case INTERVAL:
+                long period = recurrence.getPeriodSeconds();
+                return period % 60 == 0 ? "FREQ=MINUTELY;INTERVAL=" + period / 60 : "FREQ=SECONDLY;INTERVAL=" + period;
+            default:
+                return null;
+        }
+    }
+
+    // Content lines longer than 75 octets continue on lines starting with a space.
+    private static void appendFolded(StringBuilder text, String line) {
+        int start = 0;
+        int width = 75;
+        while (line.length() - start > width) {
+            text.append(line, start, start + width).append("\r\n ");
+            start += width;
+            width = 74;
+        }
+        text.append(line, start, line.length()).append("\r\n");
+    }
+
+    /**
+     * The properties of one VEVENT, kept as text until END:VEVENT.
+     */
+    private static final class Event {
+        final int line;
+        String start;
+        String startParams = "";
+        String rule;
+        String trigger;
+        String tune = AudioService.DEFAULT_TUNE;
+        String snoozeMinutes;
+        String snoozes;
+
+        Event(int line) {
+            this.line = line;
+        }
+
+        Alarm toAlarm() {
+            if (start == null) {
+                throw new IllegalArgumentException("no DTSTART");
+            }
+            LocalDateTime local = startTime();
+            if (trigger != null) {
+                local = local.plus(parseDuration(trigger));
+            }
+            // ATTACH is a URI; a file: URI becomes a path, anything else is kept as written.
+            String path = tune.startsWith("file:") ? Path.of(URI.create(tune)).toString() : tune;
+            Alarm alarm = new Alarm(local.toLocalTime().toSecondOfDay(), path,
+                    snoozeMinutes != null ? Integer.parseInt(snoozeMinutes) : Alarm.DEFAULT_SNOOZE_MINUTES,
+                    snoozes != null ? Integer.parseInt(snoozes) : Alarm.DEFAULT_SNOOZES);
+            if (rule != null) {
+                alarm.setRecurrence(parseRule(rule, local));
+            }
+            return alarm;
+        }
+
+        // DTSTART in the system zone: UTC (Z suffix) and TZID times are converted, floating
+        // times and dates are taken as local.
+        private LocalDateTime startTime() {
+            String value = start;
+            try {
+                if (value.length() == 8) {
+                    return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay();
+                }
+                if (value.endsWith("Z")) {
+                    return LocalDateTime.parse(value.substring(0, value.length() - 1), ICS_LOCAL)
+                            .atZone(ZoneOffset.UTC).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                }
+                LocalDateTime time = LocalDateTime.parse(value, ICS_LOCAL);
+                for (String param : startParams.split(";")) {
+                    if (param.toUpperCase().startsWith("TZID=")) {
+                        return time.atZone(ZoneId.of(param.substring(5).replace("\"", "")))
+                                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                    }
+                }
+                return time;
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("bad DTSTART '" + value + "'");
+            }
+        }
+    }
+
+    static Recurrence parseRule(String rule, LocalDateTime start) {
+        String freq = null;
+        String byDay = null;
+        String byMonthDay = null;
+        long interval = 1;
+        for (String part : rule.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String key = part.substring(0, equals).toUpperCase();
+            String value = part.substring(equals + 1).toUpperCase();
+            if (key.equals("FREQ")) {
+                freq = value;
+            } else if (key.equals("BYDAY")) {
+                byDay = value;
+            } else if (key.equals("BYMONTHDAY")) {
+                byMonthDay = value;
+            } else if (key.equals("INTERVAL")) {
+                interval = Long.parseLong(value);
+            }
+        }
+        if (freq == null) {
+            throw new IllegalArgumentException("RRULE without FREQ");
+        }
+        long anchor = start.atZone(ZoneId.systemDefault()).toEpochSecond();
+        switch (freq) {
+            case "SECONDLY":
+                return Recurrence.every(interval, anchor);
+            case "MINUTELY":
+                return Recurrence.every(interval * 60, anchor);
+            case "HOURLY":
+                return Recurrence.every(interval * 3600, anchor);
+            case "DAILY":
+                return interval == 1 ? Recurrence.daily() : Recurrence.every(interval * 86400, anchor);
+            case "WEEKLY":
+                if (byDay == null) {
+                    return Recurrence.weekly(start.getDayOfWeek());
+                }
+                return Recurrence.daysOfWeek(parseDays(byDay.split(",")));
+            case "MONTHLY":
+                return Recurrence.monthly(byMonthDay != null ? Integer.parseInt(byMonthDay.split(",")[0])
+                        : start.getDayOfMonth());
+            default:
+                throw new IllegalArgumentException("unsupported FREQ=" + freq);
+        }
+    }
+
+    /** An RFC 5545 duration such as -PT10M or P1DT2H, including weeks. */
+    private static Duration parseDuration(String text) {
+        String value = text.toUpperCase();
+        boolean negative = value.startsWith("-");
+        String body = value.replaceFirst("^[+-]", "");
+        Duration duration;
+        if (body.endsWith("W")) {
+            duration = Duration.ofDays(7 * Long.parseLong(body.substring(1, body.length() - 1)));
+        } else {
+            duration = Duration.parse(body);
+        }
+        return negative ? duration.negated() : duration;
+    }
+
+    private static List<String> dayCodes(int mask) {
+        List<String> codes = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            if ((mask & (1 << i)) != 0) {
+                codes.add(DAY_CODES[i]);
+            }
+        }
+        return codes;
+    }
+
+    private static int parseDays(String[] codes) {
+        int mask = 0;
+        for (String code : codes) {
+            // BYDAY may carry an ordinal (1MO, -1FR); only the day matters for a weekly rule.
+            String day = code.trim().toUpperCase().replaceAll("^[+-]?\\d+", "");
+            int index = List.of(DAY_CODES).indexOf(day);
+            if (index < 0) {
+                throw new IllegalArgumentException("unknown day '" + code + "'");
+            }
+            mask |= 1 << index;
+        }
+        return mask;
+    }
+
+    // Shared plumbing
+
+    private interface BatchWriter {
+        void write(List<Alarm> batch) throws IOException;
+    }
+
+    private int export(BatchWriter writer) throws IOException {
+        int[] count = {0};
+        try {
+            engine.forEachAlarm(BATCH_SIZE, batch -> {
+                try {
+                    writer.write(batch);
+                    count[0] += batch.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    private static void write(Writer out, String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collects parsed alarms and hands them to the engine {@link #BATCH_SIZE} at a time.
+     */
+    private final class Batch {
+        private final List<Alarm> pending = new ArrayList<>(BATCH_SIZE);
+        private final Result result = new Result();
+
+        void add(Alarm alarm) {
+            pending.add(alarm);
+            if (pending.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void skip(String reason) {
+            if (result.skipped++ == 0) {
+                result.firstError = reason;
+            }
+        }
+
+        Result finish() {
+            flush();
+            return result;
+        }
+
+        private void flush() {
+            engine.addAlarms(pending);
+            result.imported += pending.size();
+            pending.clear();
+        }
+    }
+
+    /**
+     * Reads iCalendar content lines, joining folded continuations (lines starting with a
+     * space or tab) with one line of lookahead.
+     */
+    private static final class UnfoldingReader {
+        private final BufferedReader in;
+        private String next;
+        private int lineNumber;
+
+        UnfoldingReader(Reader reader) throws IOException {
+            in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+            next = in.readLine();
+        }
+
+        String readLine() throws IOException {
+            if (next == null) {
+                return null;
+            }
+            StringBuilder line = new StringBuilder(next);
+            lineNumber++;
+            while ((next = in.readLine()) != null && !next.isEmpty()
+                    && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+                line.append(next, 1, next.length());
+                lineNumber++;
+            }
+            return line.toString();
+        }
+
+        int getLineNumber() {
+            return lineNumber;
+        }
+    }
+}
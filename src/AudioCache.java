@@ -0,0 +1,103 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decodes each tune once into a shared PCM buffer in the mixer's format. Entries are
+ * evicted least recently used first once the decoded bytes exceed {@code maxBytes}; voices
+ * that are still playing keep their own reference to the buffer, so eviction never cuts a
+ * sound off.
+ */
+class AudioCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Pcm> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public AudioCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    static final class Pcm {
+        final AudioFormat format;
+        final byte[] data;
+
+        Pcm(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+    }
+
+    public Pcm get(String path) throws IOException, UnsupportedAudioFileException {
+        String key = new File(path).getCanonicalPath();
+        synchronized (this) {
+            Pcm cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Pcm decoded = decode(new File(key));
+        synchronized (this) {
+            Pcm raced = entries.get(key);
+            if (raced != null) {
+                return raced;
+            }
+            entries.put(key, decoded);
+            totalBytes += decoded.data.length;
+            evict();
+        }
+        return decoded;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Pcm>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            totalBytes -= it.next().getValue().data.length;
+            it.remove();
+        }
+    }
+
+    private static Pcm decode(File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream pcm = openPcm(file)) {
+            return new Pcm(AudioMixer.FORMAT, pcm.readAllBytes());
+        }
+    }
+
+    /**
+     * Opens {@code file} as a stream in {@link AudioMixer#FORMAT}, converting the encoding
+     * first and then the rate and channels. Closing it closes the file.
+     */
+    static AudioInputStream openPcm(File file) throws IOException, UnsupportedAudioFileException {
+        AudioInputStream source = AudioSystem.getAudioInputStream(file);
+        try {
+            AudioFormat format = source.getFormat();
+            AudioInputStream pcm = source;
+            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || format.getSampleSizeInBits() != 16) {
+                AudioFormat signed = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                        format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+                pcm = AudioSystem.getAudioInputStream(signed, source);
+            }
+            if (!pcm.getFormat().matches(AudioMixer.FORMAT)) {
+                pcm = AudioSystem.getAudioInputStream(AudioMixer.FORMAT, pcm);
+            }
+            return pcm;
+        } catch (IllegalArgumentException e) {
+            source.close();
+            throw new UnsupportedAudioFileException("Cannot convert " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.SourceDataLine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums every playing tune into one {@link SourceDataLine}. In-memory voices share the
+ * decoded PCM from the {@link AudioCache} and only carry a read position and a gain, and
+ * {@link StreamingVoice}s hold a fixed-size buffer, so any number of simultaneous alarms
+ * costs one line, one 10 ms mix buffer and a bounded amount per voice.
+ * <p>
+ * The "audio-mixer" thread owns the line: it mixes a chunk, writes it (the line's own
+ * buffer is the ring that paces the loop) and, after a second with nothing to play, hands
+ * the line back to the {@link LinePool} and sleeps until the next voice arrives.
+ */
+class AudioMixer implements Runnable {
+    /** Every tune is decoded to this format so voices can be summed sample by sample. */
+    static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 1, true, false);
+    private static final int CHUNK_FRAMES = 441;
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LinePool lines;
+    private final LinkedBlockingQueue<Voice> incoming = new LinkedBlockingQueue<>();
+    private final List<Voice> active = new ArrayList<>();
+    private final int[] sums = new int[CHUNK_FRAMES];
+    private final byte[] chunk = new byte[CHUNK_FRAMES * 2];
+    private SourceDataLine line;
+    private Thread thread;
+
+    /**
+     * One playing tune. Only the mixer thread calls {@link #mixInto}; gain and stop may be
+     * set from any thread.
+     */
+    abstract static class Voice {
+        final boolean loop;
+        private final CompletableFuture<Boolean> ended = new CompletableFuture<>();
+        private volatile float gain = 1f;
+        private volatile boolean stopped;
+
+        Voice(boolean loop) {
+            this.loop = loop;
+        }
+
+        void setGain(float gain) {
+            this.gain = Math.max(0f, gain);
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        /**
+         * Completes on the mixer thread once the voice ends or is stopped ({@code false}) or
+         * cannot be played ({@code true}).
+         */
+        CompletableFuture<Boolean> ended() {
+            return ended;
+        }
+
+        /**
+         * Adds the next {@code frames} samples, scaled by {@code gain}/256, to {@code sums}.
+         * Returns {@code false} once the voice has nothing more to play.
+         */
+        abstract boolean mixInto(int[] sums, int frames, int gain);
+
+        /** Releases whatever the voice holds besides its samples; runs once, when it ends. */
+        void close() {
+        }
+    }
+
+    /**
+     * A voice over PCM held in memory, usually shared with the {@link AudioCache}.
+     */
+    static final class PcmVoice extends Voice {
+        private final byte[] data;
+        private int position;
+
+        PcmVoice(byte[] data, boolean loop) {
+            super(loop);
+            this.data = data;
+        }
+
+        @Override
+        boolean mixInto(int[] sums, int frames, int gain) {
+            int length = data.length & ~1;
+            if (length == 0) {
+                return false;
+            }
+            for (int i = 0; i < frames; i++) {
+                if (position >= length) {
+                    if (!loop) {
+                        return false;
+                    }
+                    position = 0;
+                }
+                int sample = (data[position] & 0xFF) | (data[position + 1] << 8);
+                sums[i] += sample * gain >> 8;
+                position += 2;
+            }
+            return loop || position < length;
+        }
+    }
+
+    AudioMixer(LinePool lines) {
+        this.lines = lines;
+    }
+
+    synchronized void add(Voice voice) {
+        incoming.add(voice);
+        if (thread == null) {
+            thread = new Thread(this, "audio-mixer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        long idleSince = System.nanoTime();
+        while (true) {
+            try {
+                if (active.isEmpty()) {
+                    Voice next = line == null ? incoming.take() : incoming.poll(10, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        if (System.nanoTime() - idleSince > IDLE_NANOS) {
+                            closeLine();
+                        }
+                        continue;
+                    }
+                    active.add(next);
+                }
+                incoming.drainTo(active);
+                if (line == null && !openLine()) {
+                    continue;
+                }
+                int frames = mix(chunk, CHUNK_FRAMES);
+                line.write(chunk, 0, frames * 2);
+                if (active.isEmpty()) {
+                    idleSince = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private boolean openLine() {
+        try {
+            line = lines.acquire(FORMAT);
+            line.start();
+            return true;
+        } catch (Exception e) {
+            System.out.println("No audio line available for " + FORMAT);
+            for (Voice voice : active) {
+                end(voice, true);
+            }
+            active.clear();
+            return false;
+        }
+    }
+
+    private void closeLine() {
+        if (line != null) {
+            line.drain();
+            lines.release(line);
+            line = null;
+        }
+    }
+
+    /**
+     * Mixes up to {@code frames} frames of the active voices into {@code out} as 16-bit
+     * little-endian samples, dropping voices that finished or were stopped, and returns the
+     * number of frames written. Called only on the mixer thread.
+     */
+    int mix(byte[] out, int frames) {
+        Arrays.fill(sums, 0, frames, 0);
+        for (int v = active.size() - 1; v >= 0; v--) {
+            Voice voice = active.get(v);
+            if (voice.stopped || !voice.mixInto(sums, frames, Math.round(voice.gain * 256))) {
+                active.remove(v);
+                end(voice, false);
+            }
+        }
+        for (int i = 0; i < frames; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sums[i]));
+            out[2 * i] = (byte) sample;
+            out[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return frames;
+    }
+
+    private static void end(Voice voice, boolean failed) {
+        voice.close();
+        voice.ended.complete(failed);
+    }
+}
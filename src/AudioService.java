@@ -0,0 +1,151 @@
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays alarm and timer tunes from decoded PCM held in an {@link AudioCache}, or streamed
+ * from disk for files over {@link #STREAM_THRESHOLD_BYTES}, mixed by an {@link AudioMixer}
+ * into a single line borrowed from a {@link LinePool}. Call {@link #prewarm()} at startup so
+ * the first ring neither decodes a file nor opens a line.
+ * <p>
+ * {@link #play} and {@link Playback#stop()} return at once: file reads and decoding run in
+ * order on the single "audio" thread and samples are written on the mixer's thread, so
+ * neither the EDT nor the engine tick ever waits on the sound system.
+ */
+class AudioService {
+    static final String SOUND_DIR = "AlarmSound";
+    static final String DEFAULT_TUNE = SOUND_DIR + "/default_alarm.WAV";
+    private static final long CACHE_BYTES = 32L * 1024 * 1024;
+    /** Files larger than this stream from disk instead of being decoded into the cache. */
+    static final long STREAM_THRESHOLD_BYTES = Long.getLong("clock.audio.streamThresholdBytes", 2L * 1024 * 1024);
+    private static final AudioService SHARED = new AudioService(new AudioCache(CACHE_BYTES), new LinePool(1));
+
+    private final AudioCache cache;
+    private final LinePool lines;
+    private final ExecutorService commands = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "audio");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AudioMixer mixer;
+
+    public AudioService(AudioCache cache, LinePool lines) {
+        this.cache = cache;
+        this.lines = lines;
+        this.mixer = new AudioMixer(lines);
+    }
+
+    public static AudioService shared() {
+        return SHARED;
+    }
+
+    public void prewarm() {
+        File[] files = new File(SOUND_DIR).listFiles((dir, name) -> name.toLowerCase().endsWith(".wav"));
+        if (files == null) {
+            return;
+        }
+        lines.prewarm(AudioMixer.FORMAT);
+        for (File file : files) {
+            if (file.length() > STREAM_THRESHOLD_BYTES) {
+                continue;
+            }
+            try {
+                cache.get(file.getPath());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Queues {@code path} to play, looping until stopped if {@code loop} is set, and returns
+     * without waiting. A tune that cannot be decoded or gets no line completes
+     * {@link Playback#finished()} with {@link Playback#isFailed()} set.
+     */
+    public Playback play(String path, boolean loop) {
+        Playback playback = new Playback(path, loop);
+        commands.execute(playback::open);
+        return playback;
+    }
+
+    final class Playback {
+        private final String path;
+        private final boolean loop;
+        private final CompletableFuture<Playback> finished = new CompletableFuture<>();
+        private volatile AudioMixer.Voice voice;
+        private volatile float gain = 1f;
+        private volatile boolean stopped;
+        private volatile boolean failed;
+
+        private Playback(String path, boolean loop) {
+            this.path = path;
+            this.loop = loop;
+        }
+
+        // Audio thread: decode (or hit the cache) or open a stream, then hand the voice to the mixer.
+        private void open() {
+            if (stopped) {
+                finished.complete(this);
+                return;
+            }
+            AudioMixer.Voice started;
+            try {
+                File file = new File(path);
+                started = file.length() > STREAM_THRESHOLD_BYTES
+                        ? StreamingVoice.open(file, loop)
+                        : new AudioMixer.PcmVoice(cache.get(path).data, loop);
+            } catch (Exception e) {
+                e.printStackTrace();
+                failed = true;
+                finished.complete(this);
+                return;
+            }
+            started.ended().thenAccept(lineFailed -> {
+                failed = lineFailed;
+                finished.complete(this);
+            });
+            started.setGain(gain);
+            voice = started;
+            if (stopped) {
+                // Raced with stop(), which may not have seen the voice yet.
+                started.stop();
+            }
+            mixer.add(started);
+        }
+
+        /**
+         * Stops the tune and returns at once; {@link #finished()} completes once the mixer
+         * has dropped it.
+         */
+        public void stop() {
+            stopped = true;
+            AudioMixer.Voice current = voice;
+            if (current != null) {
+                current.stop();
+            }
+        }
+
+        /**
+         * Sets this tune's volume relative to the others, 1 being its recorded level.
+         */
+        public void setGain(float gain) {
+            this.gain = gain;
+            AudioMixer.Voice current = voice;
+            if (current != null) {
+                current.setGain(gain);
+            }
+        }
+
+        /**
+         * Completes when the tune ends, is stopped or fails to start.
+         */
+        public CompletableFuture<Playback> finished() {
+            return finished;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+class Clock {
+    private static final int SECONDS_PER_DAY = 86400;
+    private final char[] display24 = "00:00:00".toCharArray();
+    private final char[] display12 = "12:00:00 AM".toCharArray();
+    private boolean twelveHour;
+    private long lastSecond = Long.MIN_VALUE;
+    private int lastMinuteOfDay = -1;
+    private int lastHour = -1;
+    private int secondOfDay;
+    private final ZoneOffsetCache offsets = new ZoneOffsetCache();
+    private String displayString;
+    private String alarmString;
+
+    public synchronized String getCurrentTime() {
+        update(System.currentTimeMillis());
+        if (displayString == null) {
+            displayString = new String(twelveHour ? display12 : display24);
+        }
+        return displayString;
+    }
+
+    public synchronized String checkAlarmHelper() {
+        update(System.currentTimeMillis());
+        if (alarmString == null) {
+            alarmString = new String(display24);
+        }
+        return alarmString;
+    }
+
+    /**
+     * Copies the current display characters into {@code target} and returns how many were
+     * written, so a renderer on another thread can read the time without allocating.
+     */
+    public synchronized int copyDisplayChars(char[] target) {
+        char[] source = twelveHour ? display12 : display24;
+        System.arraycopy(source, 0, target, 0, source.length);
+        return source.length;
+    }
+
+    public synchronized int getSecondOfDay() {
+        return secondOfDay;
+    }
+
+    public synchronized void update(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second == lastSecond) {
+            return;
+        }
+        lastSecond = second;
+        secondOfDay = (int) Math.floorMod(offsets.toLocalSecond(second), (long) SECONDS_PER_DAY);
+        writeTwoDigits(display24, 6, secondOfDay % 60);
+        writeTwoDigits(display12, 6, secondOfDay % 60);
+
+        int minuteOfDay = secondOfDay / 60;
+        if (minuteOfDay != lastMinuteOfDay) {
+            lastMinuteOfDay = minuteOfDay;
+            writeTwoDigits(display24, 3, minuteOfDay % 60);
+            writeTwoDigits(display12, 3, minuteOfDay % 60);
+
+            int hour = minuteOfDay / 60;
+            if (hour != lastHour) {
+                lastHour = hour;
+                writeTwoDigits(display24, 0, hour);
+                writeTwoDigits(display12, 0, hour % 12 == 0 ? 12 : hour % 12);
+                display12[9] = hour < 12 ? 'A' : 'P';
+            }
+        }
+        displayString = null;
+        alarmString = null;
+    }
+
+    private static void writeTwoDigits(char[] buffer, int index, int value) {
+        buffer[index] = (char) ('0' + value / 10);
+        buffer[index + 1] = (char) ('0' + value % 10);
+    }
+
+    public synchronized void setDisplayFormat(String format) {
+        twelveHour = format.equals("12-Hour");
+        displayString = null;
+    }
+}
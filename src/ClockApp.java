@@ -1,33 +1,42 @@
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.time.DateTimeException;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ClockApp extends JFrame {
+    private static final long LAUNCH_MILLIS = System.currentTimeMillis();
+    private final ClockEngine engine;
     private Clock clock;
-    private List<Alarm> alarms;
-    private JLabel timeLabel;
+    private final AtomicBoolean tickQueued = new AtomicBoolean();
+    private final Runnable edtTick = this::updateTime;
+    private DigitDisplay timeDisplay;
     private AlarmManagementWindow alarmWindow;
+    private WorldClockWindow worldClockWindow;
+    private volatile long tickSecond;
+    private final AlarmListModel alarmListModel = new AlarmListModel();
     private final Color NEON_PURPLE = new Color(187, 134, 252);
     private final Color NEON_BLUE = new Color(3, 218, 247);
     private final Color DARK_BG = new Color(18, 18, 18);
-    private final Font DIGITAL_FONT = new Font("DS-Digital", Font.BOLD, 72);
     private final Font DEFAULT_FONT = new Font("Segoe UI", Font.BOLD, 14);
     private JPanel timePanel;
     private final Color NEON_ORANGE = new Color(255, 159, 0);
+    private boolean firstPaintDone;
 
     public ClockApp() {
-        clock = new Clock();
-        alarms = new ArrayList<>();
+        engine = new ClockEngine();
+        clock = engine.getClock();
         setupMainWindow();
         setupTimeDisplay();
         setupButtonPanel();
@@ -36,7 +45,7 @@ public class ClockApp extends JFrame {
 
     private void setupMainWindow() {
         setTitle("Digital Clock");
-        setSize(700, 300);
+        setSize(820, 300);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(20, 20));
         getContentPane().setBackground(DARK_BG);
@@ -47,21 +56,16 @@ public class ClockApp extends JFrame {
     private void setupTimeDisplay() {
         timePanel = new JPanel(new BorderLayout());
         timePanel.setBackground(DARK_BG);
-        timeLabel = new JLabel(clock.getCurrentTime(), SwingConstants.CENTER);
-        try {
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            ge.registerFont(Font.createFont(Font.TRUETYPE_FONT, new File("fonts/DS-Digital.ttf")));
-            timeLabel.setFont(DIGITAL_FONT);
-        } catch (Exception e) {
-            timeLabel.setFont(new Font("Monospaced", Font.BOLD, 72));
-        }
-        timeLabel.setForeground(NEON_PURPLE);
-        timeLabel.setBorder(BorderFactory.createCompoundBorder(
+        timeDisplay = new DigitDisplay(clock);
+        timeDisplay.setFont(DigitalFont.get(72f));
+        DigitalFont.whenLoaded(font -> timeDisplay.setFont(font.deriveFont(72f)));
+        timeDisplay.setForeground(NEON_PURPLE);
+        timeDisplay.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(NEON_BLUE, 2),
                 new EmptyBorder(20, 40, 20, 40)
         ));
         timePanel.add(createGlowEffect(), BorderLayout.NORTH);
-        timePanel.add(timeLabel, BorderLayout.CENTER);
+        timePanel.add(timeDisplay, BorderLayout.CENTER);
         add(timePanel, BorderLayout.CENTER);
     }
 
@@ -70,16 +74,7 @@ public class ClockApp extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                int width = getWidth();
-                int height = getHeight();
-                GradientPaint glow = new GradientPaint(
-                        width / 2, 0, new Color(NEON_PURPLE.getRed(), NEON_PURPLE.getGreen(), NEON_PURPLE.getBlue(), 50),
-                        width / 2, height, new Color(NEON_PURPLE.getRed(), NEON_PURPLE.getGreen(), NEON_PURPLE.getBlue(), 0)
-                );
-                g2d.setPaint(glow);
-                g2d.fillRect(0, 0, width, height);
+                SkinCache.paintGlow(g, getWidth(), getHeight(), NEON_PURPLE);
             }
         };
         glowPanel.setPreferredSize(new Dimension(0, 20));
@@ -91,20 +86,7 @@ public class ClockApp extends JFrame {
         JButton button = new JButton(text) {
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                GradientPaint gradient = new GradientPaint(0, 0, mainColor.darker(), 0, getHeight(), mainColor.darker().darker());
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 20, 20);
-                g2d.setColor(new Color(mainColor.getRed(), mainColor.getGreen(), mainColor.getBlue(), 50));
-                g2d.setStroke(new BasicStroke(2));
-                g2d.drawRoundRect(2, 2, getWidth() - 5, getHeight() - 5, 20, 20);
-                g2d.setColor(Color.WHITE);
-                g2d.setFont(DEFAULT_FONT);
-                FontMetrics fm = g2d.getFontMetrics();
-                int textX = (getWidth() - fm.stringWidth(getText())) / 2;
-                int textY = (getHeight() + fm.getAscent() - fm.getDescent()) / 2;
-                g2d.drawString(getText(), textX, textY);
+                SkinCache.paintButton(g, this, mainColor, DEFAULT_FONT);
             }
         };
         button.setPreferredSize(new Dimension(120, 40));
@@ -126,45 +108,99 @@ public class ClockApp extends JFrame {
         JButton alarmsButton = createStyledButton("Alarms", NEON_PURPLE);
         JButton timerButton = createStyledButton("Timer", NEON_BLUE);
         JButton stopwatchButton = createStyledButton("Stopwatch", NEON_ORANGE);
+        JButton worldButton = createStyledButton("World", NEON_PURPLE);
 
         settingsButton.addActionListener(e -> openSettingsWindow());
         alarmsButton.addActionListener(e -> openAlarmManagementWindow());
         timerButton.addActionListener(e -> openTimerWindow());
         stopwatchButton.addActionListener(e -> openStopwatchWindow());
+        worldButton.addActionListener(e -> openWorldClockWindow());
 
         buttonPanel.add(settingsButton);
         buttonPanel.add(alarmsButton);
         buttonPanel.add(timerButton);
         buttonPanel.add(stopwatchButton);
+        buttonPanel.add(worldButton);
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
     private void openStopwatchWindow() {
-        StopwatchWindow stopwatchWindow = new StopwatchWindow();
+        StopwatchWindow stopwatchWindow = new StopwatchWindow(engine);
         stopwatchWindow.setVisible(true);
     }
 
     private void openTimerWindow() {
-        TimerWindow timerWindow = new TimerWindow();
+        TimerWindow timerWindow = new TimerWindow(engine);
         timerWindow.setVisible(true);
     }
 
+    private void openWorldClockWindow() {
+        if (worldClockWindow == null || !worldClockWindow.isDisplayable()) {
+            worldClockWindow = new WorldClockWindow();
+            worldClockWindow.tick(tickSecond);
+        }
+        worldClockWindow.setVisible(true);
+    }
+
     private void startClockTimer() {
-        Timer timer = new Timer(1000, e -> updateTime());
-        timer.start();
+        engine.addListener(new ClockEngine.Listener() {
+            @Override
+            public void onTick(long epochSecond) {
+                tickSecond = epochSecond;
+                if (tickQueued.compareAndSet(false, true)) {
+                    SwingUtilities.invokeLater(edtTick);
+                }
+            }
+
+            @Override
+            public void onAlarmFired(Alarm alarm) {
+                SwingUtilities.invokeLater(() -> new AlarmRingWindow(alarm, ClockApp.this));
+            }
+
+            @Override
+            public void onAlarmAdded(int index, Alarm alarm) {
+                SwingUtilities.invokeLater(() -> alarmListModel.alarmAdded(index, alarm));
+            }
+
+            @Override
+            public void onAlarmsAdded(int index, List<Alarm> added) {
+                SwingUtilities.invokeLater(() -> alarmListModel.alarmsAdded(index, added));
+            }
+
+            @Override
+            public void onAlarmUpdated(int index, Alarm alarm) {
+                SwingUtilities.invokeLater(() -> alarmListModel.alarmUpdated(index));
+            }
+
+            @Override
+            public void onAlarmRemoved(int index, Alarm alarm) {
+                SwingUtilities.invokeLater(() -> alarmListModel.alarmRemoved(index));
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(engine::stop, "clock-shutdown"));
+        // Replaying a large journal takes a while, so the saved alarms are read off the EDT
+        // and the engine starts ticking once they are in.
+        new Thread(() -> {
+            try {
+                engine.attachStore(AlarmStore.openDefault());
+            } catch (IOException e) {
+                System.out.println("Alarms will not be saved: " + e.getMessage());
+            }
+            engine.start();
+        }, "clock-startup").start();
     }
 
     private void updateTime() {
-        timeLabel.setText(clock.getCurrentTime());
-        checkAlarms();
+        tickQueued.set(false);
+        ClockMetrics.CLOCK_UPDATE.record((System.currentTimeMillis() - tickSecond * 1000) * 1_000_000);
+        refreshTimeDisplay();
+        if (worldClockWindow != null && worldClockWindow.isVisible()) {
+            worldClockWindow.tick(tickSecond);
+        }
     }
 
-    private void checkAlarms() {
-        for (Alarm alarm : alarms) {
-            if (clock.checkAlarmHelper().equals(alarm.getAlarmTime())) {
-                new AlarmRingWindow(alarm, this);
-            }
-        }
+    public void refreshTimeDisplay() {
+        timeDisplay.refresh();
     }
 
     private void openSettingsWindow() {
@@ -173,38 +209,61 @@ public class ClockApp extends JFrame {
 
     private void openAlarmManagementWindow() {
         if (alarmWindow == null || !alarmWindow.isVisible()) {
-            alarmWindow = new AlarmManagementWindow(this);
+            alarmWindow = new AlarmManagementWindow(this, alarmListModel);
         }
         alarmWindow.setVisible(true);
     }
 
     public void addAlarm(Alarm alarm) {
-        alarms.add(alarm);
-        if (alarmWindow != null) {
-            alarmWindow.updateAlarmsList();
-        }
+        engine.addAlarm(alarm);
+    }
+
+    public void updateAlarm(Alarm alarm, int secondOfDay, String tune, int snoozeTime, int noOfSnoozes,
+            Recurrence recurrence) {
+        engine.updateAlarm(alarm, secondOfDay, tune, snoozeTime, noOfSnoozes, recurrence);
     }
 
     public void removeAlarm(Alarm alarm) {
-        alarms.remove(alarm);
-        if (alarmWindow != null) {
-            alarmWindow.updateAlarmsList();
-        }
+        engine.removeAlarm(alarm);
+    }
+
+    public void stopAlarm(Alarm alarm) {
+        engine.stopAlarm(alarm);
+    }
+
+    public void snoozeAlarm(Alarm alarm) {
+        engine.snoozeAlarm(alarm);
     }
 
     public List<Alarm> getAlarms() {
-        return alarms;
+        return engine.getAlarms();
+    }
+
+    /**
+     * Adds every alarm in a CSV or iCalendar file. Blocks while reading, so call it off the EDT.
+     */
+    public AlarmTransfer.Result importAlarms(File file) throws IOException {
+        return new AlarmTransfer(engine).importFile(file.toPath());
+    }
+
+    /**
+     * Writes every alarm to a CSV or iCalendar file, picked by its extension, and returns how
+     * many were written. Blocks while writing, so call it off the EDT.
+     */
+    public int exportAlarms(File file) throws IOException {
+        return new AlarmTransfer(engine).exportFile(file.toPath());
     }
 
     public void setClockTextColor(Color color) {
-        timeLabel.setForeground(color);
+        timeDisplay.setForeground(color);
     }
 
     public Color getClockTextColor() {
-        return timeLabel.getForeground();
+        return timeDisplay.getForeground();
     }
 
     public void setBackgroundColor(Color color) {
+        SkinCache.clear();
         getContentPane().setBackground(color);
         timePanel.setBackground(color);
         for (Component comp : getContentPane().getComponents()) {
@@ -239,42 +298,177 @@ public class ClockApp extends JFrame {
         return this.getWidth();
     }
 
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (!firstPaintDone) {
+            firstPaintDone = true;
+            onFirstPaint();
+        }
+    }
+
+    /**
+     * Logs the time from JVM launch to the first painted frame against the
+     * {@code clock.startup.targetMillis} budget (500 ms by default), then starts the work that
+     * was held back for it. With {@code -Dclock.startup.exitAfterFirstPaint=true} the app
+     * exits here instead, which is how the CDS training run in the {@code cds} profile ends.
+     */
+    private void onFirstPaint() {
+        long startMillis = ProcessHandle.current().info().startInstant()
+                .map(java.time.Instant::toEpochMilli).orElse(LAUNCH_MILLIS);
+        long elapsed = System.currentTimeMillis() - startMillis;
+        long target = Long.getLong("clock.startup.targetMillis", 500);
+        System.out.println("Time to first paint: " + elapsed + " ms (target " + target + " ms)"
+                + (elapsed > target ? " - over target" : ""));
+        if (Boolean.getBoolean("clock.startup.exitAfterFirstPaint")) {
+            System.exit(0);
+        }
+        Thread prewarm = new Thread(AudioService.shared()::prewarm, "audio-prewarm");
+        prewarm.setDaemon(true);
+        prewarm.start();
+        // Creating the platform MBeanServer costs more than the whole first-paint budget.
+        Thread metrics = new Thread(ClockMetrics::register, "metrics-register");
+        metrics.setDaemon(true);
+        metrics.start();
+        // Off unless -Dclock.controlPort is set.
+        Thread control = new Thread(() -> ControlServer.startDefault(engine), "control-start");
+        control.setDaemon(true);
+        control.start();
+    }
+
     public static void main(String[] args) {
+        DigitalFont.preload();
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             e.printStackTrace();
         }
+        TimedEventQueue.install();
         SwingUtilities.invokeLater(() -> new ClockApp().setVisible(true));
     }
 }
 
+/**
+ * Times in any number of zones, advanced by the main window's tick. Zones come from the
+ * comma-separated {@code clock.worldZones} property, or a default set.
+ */
+class WorldClockWindow extends JFrame {
+    private static final String DEFAULT_ZONES =
+            "UTC,America/Los_Angeles,America/New_York,Europe/London,Europe/Berlin,Asia/Kolkata,Asia/Tokyo,Australia/Sydney";
+    private final WorldClock worldClock = new WorldClock();
+    private final WorldClockPanel worldClockPanel = new WorldClockPanel(worldClock);
+    private long lastTickSecond;
+    private final Color NEON_BLUE = new Color(3, 218, 247);
+    private final Color NEON_RED = new Color(255, 69, 58);
+    private final Color DARK_BG = new Color(18, 18, 18);
+    private final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
+
+    public WorldClockWindow() {
+        for (String id : System.getProperty("clock.worldZones", DEFAULT_ZONES).split(",")) {
+            try {
+                worldClock.addZone(ZoneId.of(id.trim()));
+            } catch (DateTimeException e) {
+                System.out.println("Unknown time zone: " + id);
+            }
+        }
+        setupWindow();
+        setupControls();
+    }
+
+    private void setupWindow() {
+        setTitle("World Clock");
+        setSize(560, 520);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout(20, 20));
+        getContentPane().setBackground(DARK_BG);
+        getRootPane().setBorder(new EmptyBorder(20, 20, 20, 20));
+        setLocationRelativeTo(null);
+
+        JScrollPane scrollPane = new JScrollPane(worldClockPanel);
+        scrollPane.setBorder(BorderFactory.createLineBorder(NEON_BLUE, 2));
+        scrollPane.getViewport().setBackground(DARK_BG);
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+    private void setupControls() {
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        controlPanel.setBackground(DARK_BG);
+
+        String[] ids = ZoneId.getAvailableZoneIds().stream().sorted().toArray(String[]::new);
+        JComboBox<String> zoneBox = new JComboBox<>(ids);
+        zoneBox.setSelectedItem(ZoneId.systemDefault().getId());
+        zoneBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+
+        JButton addButton = createStyledButton("Add", NEON_BLUE);
+        addButton.addActionListener(e -> {
+            worldClock.addZone(ZoneId.of((String) zoneBox.getSelectedItem()));
+            worldClockPanel.zonesChanged();
+            worldClockPanel.tick(lastTickSecond);
+        });
+
+        JButton removeButton = createStyledButton("Remove", NEON_RED);
+        removeButton.addActionListener(e -> {
+            int index = worldClockPanel.getSelectedIndex();
+            if (index >= 0) {
+                worldClock.removeZone(index);
+                worldClockPanel.zonesChanged();
+            }
+        });
+
+        controlPanel.add(zoneBox);
+        controlPanel.add(addButton);
+        controlPanel.add(removeButton);
+        add(controlPanel, BorderLayout.SOUTH);
+    }
+
+    void tick(long epochSecond) {
+        lastTickSecond = epochSecond;
+        worldClockPanel.tick(epochSecond);
+    }
+
+    private JButton createStyledButton(String text, Color mainColor) {
+        JButton button = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                SkinCache.paintButton(g, this, mainColor, BUTTON_FONT);
+            }
+        };
+        button.setPreferredSize(new Dimension(100, 40));
+        button.setBorderPainted(false);
+        button.setContentAreaFilled(false);
+        button.setFocusPainted(false);
+        button.setForeground(Color.WHITE);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        return button;
+    }
+}
+
 class TimerWindow extends JFrame {
-    private Timer countdownTimer;
-    private JLabel timerLabel;
-    private int remainingSeconds;
-    private boolean isTimerRunning;
+    private final ClockEngine engine;
+    private final List<TimerRow> rows = new ArrayList<>();
+    private Timer refreshTimer;
+    private final ClockMetrics.PeriodProbe tickProbe = new ClockMetrics.PeriodProbe(ClockMetrics.TIMER_TICK);
+    private JPanel rowsPanel;
+    private JTextField nameField;
+    private JSpinner minutesSpinner;
+    private JSpinner secondsSpinner;
+    private JCheckBox tenthsBox;
     private final Color NEON_PURPLE = new Color(187, 134, 252);
     private final Color NEON_GREEN = new Color(0, 255, 128);
     private final Color NEON_RED = new Color(255, 69, 58);
     private final Color DARK_BG = new Color(18, 18, 18);
-    private final Font DIGITAL_FONT = new Font("DS-Digital", Font.BOLD, 72);
-    private JButton startPauseButton;
-    private JButton resetButton;
-    private JSpinner minutesSpinner;
-    private JSpinner secondsSpinner;
-    private int initialSeconds;
+    private final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
 
-    public TimerWindow() {
+    public TimerWindow(ClockEngine engine) {
+        this.engine = engine;
         setupWindow();
-        setupTimerDisplay();
         setupControls();
-        setupButtonPanel();
+        setupTimerList();
     }
 
     private void setupWindow() {
-        setTitle("Timer");
-        setSize(400, 300);
+        setTitle("Timers");
+        setSize(640, 460);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout(20, 20));
         getContentPane().setBackground(DARK_BG);
@@ -285,40 +479,32 @@ class TimerWindow extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                if (countdownTimer != null) {
-                    countdownTimer.stop();
+                refreshTimer.stop();
+                for (TimerRow row : rows) {
+                    engine.cancelCountdown(row.countdown);
                 }
             }
         });
-    }
-
-    private void setupTimerDisplay() {
-        JPanel timerPanel = new JPanel(new BorderLayout());
-        timerPanel.setBackground(DARK_BG);
 
-        timerLabel = new JLabel("00:00", SwingConstants.CENTER);
-        try {
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            ge.registerFont(Font.createFont(Font.TRUETYPE_FONT, new File("fonts/DS-Digital.ttf")));
-            timerLabel.setFont(DIGITAL_FONT);
-        } catch (Exception e) {
-            timerLabel.setFont(new Font("Monospaced", Font.BOLD, 72));
-        }
-        timerLabel.setForeground(NEON_PURPLE);
-        timerLabel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(NEON_GREEN, 2),
-                new EmptyBorder(20, 40, 20, 40)
-        ));
-
-        timerPanel.add(timerLabel, BorderLayout.CENTER);
-        add(timerPanel, BorderLayout.CENTER);
+        // One repaint timer for every row; it only reads deadlines, so a stalled EDT
+        // delays the display but never the countdowns themselves.
+        refreshTimer = new Timer(100, e -> {
+            tickProbe.fired(refreshTimer.getDelay());
+            refreshRows();
+        });
     }
 
     private void setupControls() {
         JPanel controlsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         controlsPanel.setBackground(DARK_BG);
 
-        SpinnerNumberModel minutesModel = new SpinnerNumberModel(0, 0, 59, 1);
+        nameField = new JTextField("Timer 1", 8);
+        nameField.setBackground(DARK_BG);
+        nameField.setForeground(Color.WHITE);
+        nameField.setCaretColor(Color.WHITE);
+        nameField.setBorder(BorderFactory.createLineBorder(NEON_GREEN));
+
+        SpinnerNumberModel minutesModel = new SpinnerNumberModel(0, 0, 999, 1);
         SpinnerNumberModel secondsModel = new SpinnerNumberModel(0, 0, 59, 1);
 
         minutesSpinner = new JSpinner(minutesModel);
@@ -333,14 +519,42 @@ class TimerWindow extends JFrame {
         styleSpinner(minutesSpinner);
         styleSpinner(secondsSpinner);
 
+        tenthsBox = new JCheckBox("Tenths");
+        tenthsBox.setBackground(DARK_BG);
+        tenthsBox.setForeground(Color.WHITE);
+        tenthsBox.setFocusPainted(false);
+        tenthsBox.addActionListener(e -> refreshRows());
+
+        JButton addButton = createStyledButton("Add", NEON_GREEN);
+        addButton.addActionListener(e -> addTimer());
+
+        controlsPanel.add(nameField);
         controlsPanel.add(minutesLabel);
         controlsPanel.add(minutesSpinner);
         controlsPanel.add(secondsLabel);
         controlsPanel.add(secondsSpinner);
+        controlsPanel.add(tenthsBox);
+        controlsPanel.add(addButton);
 
         add(controlsPanel, BorderLayout.NORTH);
     }
 
+    private void setupTimerList() {
+        rowsPanel = new JPanel();
+        rowsPanel.setLayout(new BoxLayout(rowsPanel, BoxLayout.Y_AXIS));
+        rowsPanel.setBackground(DARK_BG);
+
+        JPanel rowsHolder = new JPanel(new BorderLayout());
+        rowsHolder.setBackground(DARK_BG);
+        rowsHolder.add(rowsPanel, BorderLayout.NORTH);
+
+        JScrollPane scrollPane = new JScrollPane(rowsHolder);
+        scrollPane.setBorder(BorderFactory.createLineBorder(NEON_GREEN, 2));
+        scrollPane.getViewport().setBackground(DARK_BG);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
     private void styleSpinner(JSpinner spinner) {
         spinner.setPreferredSize(new Dimension(60, 30));
         Component editor = spinner.getEditor();
@@ -353,40 +567,11 @@ class TimerWindow extends JFrame {
         }
     }
 
-    private void setupButtonPanel() {
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
-        buttonPanel.setBackground(DARK_BG);
-
-        startPauseButton = createStyledButton("Start", NEON_GREEN);
-        resetButton = createStyledButton("Reset", NEON_RED);
-        resetButton.setEnabled(false);
-
-        startPauseButton.addActionListener(e -> handleStartPause());
-        resetButton.addActionListener(e -> handleReset());
-
-        buttonPanel.add(startPauseButton);
-        buttonPanel.add(resetButton);
-        add(buttonPanel, BorderLayout.SOUTH);
-    }
-
     private JButton createStyledButton(String text, Color mainColor) {
         JButton button = new JButton(text) {
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                GradientPaint gradient = new GradientPaint(0, 0, mainColor.darker(), 0, getHeight(), mainColor.darker().darker());
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 20, 20);
-                g2d.setColor(new Color(mainColor.getRed(), mainColor.getGreen(), mainColor.getBlue(), 50));
-                g2d.setStroke(new BasicStroke(2));
-                g2d.drawRoundRect(2, 2, getWidth() - 5, getHeight() - 5, 20, 20);
-                g2d.setColor(Color.WHITE);
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 14));
-                FontMetrics fm = g2d.getFontMetrics();
-                int textX = (getWidth() - fm.stringWidth(getText())) / 2;
-                int textY = (getHeight() + fm.getAscent() - fm.getDescent()) / 2;
-                g2d.drawString(getText(), textX, textY);
+                SkinCache.paintButton(g, this, mainColor, BUTTON_FONT);
             }
         };
         button.setPreferredSize(new Dimension(100, 40));
@@ -398,124 +583,185 @@ class TimerWindow extends JFrame {
         return button;
     }
 
-    private void handleStartPause() {
-        if (!isTimerRunning) {
-            int minutes = (Integer) minutesSpinner.getValue();
-            int seconds = (Integer) secondsSpinner.getValue();
+    private void addTimer() {
+        int minutes = (Integer) minutesSpinner.getValue();
+        int seconds = (Integer) secondsSpinner.getValue();
 
-            if (minutes == 0 && seconds == 0) {
-                JOptionPane.showMessageDialog(this, "Please set a time greater than 0");
-                return;
-            }
+        if (minutes == 0 && seconds == 0) {
+            JOptionPane.showMessageDialog(this, "Please set a time greater than 0");
+            return;
+        }
 
-            if (remainingSeconds == 0) {
-                initialSeconds = minutes * 60 + seconds;
-                remainingSeconds = initialSeconds;
-            }
+        String name = nameField.getText().trim();
+        if (name.isEmpty()) {
+            name = "Timer " + (rows.size() + 1);
+        }
+        TimerRow row = new TimerRow(name, (minutes * 60L + seconds) * 1000);
+        rows.add(row);
+        rowsPanel.add(row);
+        rowsPanel.revalidate();
+        nameField.setText("Timer " + (rows.size() + 1));
+        row.start();
+    }
+
+    private void removeTimer(TimerRow row) {
+        engine.cancelCountdown(row.countdown);
+        rows.remove(row);
+        rowsPanel.remove(row);
+        rowsPanel.revalidate();
+        rowsPanel.repaint();
+        updateRefreshTimer();
+    }
+
+    private void refreshRows() {
+        boolean tenths = tenthsBox.isSelected();
+        for (TimerRow row : rows) {
+            row.updateDisplay(tenths);
+        }
+    }
 
-            startTimer();
-        } else {
-            pauseTimer();
+    private void updateRefreshTimer() {
+        boolean anyRunning = false;
+        for (TimerRow row : rows) {
+            anyRunning |= engine.isCountdownRunning(row.countdown);
+        }
+        if (anyRunning && !refreshTimer.isRunning()) {
+            tickProbe.restart();
+            refreshTimer.start();
+        } else if (!anyRunning) {
+            refreshTimer.stop();
+            refreshRows();
         }
     }
 
-    private void startTimer() {
-        isTimerRunning = true;
-        startPauseButton.setText("Pause");
-        resetButton.setEnabled(true);
-        minutesSpinner.setEnabled(false);
-        secondsSpinner.setEnabled(false);
+    /**
+     * Formats {@code millis} as [h:]mm:ss, or with tenths as [h:]mm:ss.t. Whole seconds are
+     * rounded up so the display reaches zero exactly when the countdown completes.
+     */
+    static String formatRemaining(long millis, boolean tenths) {
+        long totalSeconds = tenths ? millis / 1000 : (millis + 999) / 1000;
+        long hours = totalSeconds / 3600;
+        String text = hours > 0
+                ? String.format("%d:%02d:%02d", hours, (totalSeconds / 60) % 60, totalSeconds % 60)
+                : String.format("%02d:%02d", totalSeconds / 60, totalSeconds % 60);
+        return tenths ? text + "." + (millis % 1000) / 100 : text;
+    }
+
+    private class TimerRow extends JPanel {
+        private final Countdown countdown;
+        private final JLabel timeLabel = new JLabel();
+        private final JButton startPauseButton = createStyledButton("Pause", NEON_GREEN);
+        private long shownUnits = -1;
+        private boolean shownTenths;
+
+        TimerRow(String name, long durationMillis) {
+            countdown = engine.createCountdown(name, durationMillis, () -> SwingUtilities.invokeLater(this::complete));
+
+            setLayout(new BorderLayout(10, 0));
+            setBackground(DARK_BG);
+            setBorder(new EmptyBorder(8, 10, 8, 10));
+            setMaximumSize(new Dimension(Integer.MAX_VALUE, 60));
+
+            JLabel nameLabel = new JLabel(name);
+            nameLabel.setForeground(Color.WHITE);
+            nameLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            nameLabel.setPreferredSize(new Dimension(120, 40));
+
+            timeLabel.setFont(DigitalFont.get(36f));
+            DigitalFont.whenLoaded(font -> timeLabel.setFont(font.deriveFont(36f)));
+            timeLabel.setForeground(NEON_PURPLE);
+
+            JButton resetButton = createStyledButton("Reset", NEON_PURPLE);
+            JButton removeButton = createStyledButton("Remove", NEON_RED);
+            startPauseButton.addActionListener(e -> handleStartPause());
+            resetButton.addActionListener(e -> reset());
+            removeButton.addActionListener(e -> removeTimer(this));
+
+            JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+            buttons.setBackground(DARK_BG);
+            buttons.add(startPauseButton);
+            buttons.add(resetButton);
+            buttons.add(removeButton);
+
+            add(nameLabel, BorderLayout.WEST);
+            add(timeLabel, BorderLayout.CENTER);
+            add(buttons, BorderLayout.EAST);
+            updateDisplay(tenthsBox.isSelected());
+        }
 
-        countdownTimer = new Timer(1000, e -> {
-            remainingSeconds--;
-            updateTimerDisplay();
+        void start() {
+            engine.resumeCountdown(countdown);
+            startPauseButton.setText("Pause");
+            updateRefreshTimer();
+        }
 
-            if (remainingSeconds <= 0) {
-                timerComplete();
+        private void handleStartPause() {
+            if (engine.isCountdownRunning(countdown)) {
+                engine.pauseCountdown(countdown);
+                startPauseButton.setText("Resume");
+                updateRefreshTimer();
+            } else if (engine.getRemainingSeconds(countdown) > 0) {
+                start();
             }
-        });
-        countdownTimer.start();
-    }
-
-    private void pauseTimer() {
-        isTimerRunning = false;
-        countdownTimer.stop();
-        startPauseButton.setText("Resume");
-    }
-
-    private void handleReset() {
-        if (countdownTimer != null) {
-            countdownTimer.stop();
         }
-        isTimerRunning = false;
-        remainingSeconds = 0;
-        startPauseButton.setText("Start");
-        resetButton.setEnabled(false);
-        minutesSpinner.setEnabled(true);
-        secondsSpinner.setEnabled(true);
-        minutesSpinner.setValue(0);
-        secondsSpinner.setValue(0);
-        updateTimerDisplay();
-    }
 
-    private void updateTimerDisplay() {
-        int minutes = remainingSeconds / 60;
-        int seconds = remainingSeconds % 60;
-        timerLabel.setText(String.format("%02d:%02d", minutes, seconds));
-    }
+        private void reset() {
+            engine.resetCountdown(countdown);
+            startPauseButton.setText("Start");
+            timeLabel.setForeground(NEON_PURPLE);
+            updateRefreshTimer();
+        }
 
-    private void timerComplete() {
-        countdownTimer.stop();
-        isTimerRunning = false;
-        playAlarmSound();
-        timerLabel.setForeground(NEON_RED);
-        startPauseButton.setText("Start");
-        JOptionPane.showMessageDialog(this, "Timer Complete!");
-        handleReset();
-        timerLabel.setForeground(NEON_PURPLE);
-    }
+        void updateDisplay(boolean tenths) {
+            long millis = engine.getRemainingMillis(countdown);
+            long units = tenths ? millis / 100 : (millis + 999) / 1000;
+            if (units != shownUnits || tenths != shownTenths) {
+                shownUnits = units;
+                shownTenths = tenths;
+                timeLabel.setText(formatRemaining(millis, tenths));
+            }
+        }
 
-    private void playAlarmSound() {
-        try {
-            File soundFile = new File("D:\\Java\\clock2\\AlarmSound\\default_alarm.WAV");
-            if (soundFile.exists()) {
-                AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundFile);
-                Clip clip = AudioSystem.getClip();
-                clip.open(audioIn);
-                clip.start();
+        private void complete() {
+            if (!rows.contains(this)) {
+                return;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            updateRefreshTimer();
+            timeLabel.setForeground(NEON_RED);
+            startPauseButton.setText("Start");
+            JOptionPane.showMessageDialog(TimerWindow.this, countdown.getName() + " complete!");
+            reset();
         }
     }
 }
 
 class StopwatchWindow extends JFrame {
+    private final ClockEngine engine;
+    private final Stopwatch stopwatch;
     private Timer stopwatchTimer;
+    private final ClockMetrics.PeriodProbe tickProbe = new ClockMetrics.PeriodProbe(ClockMetrics.STOPWATCH_TICK);
     private JLabel timeLabel;
     private JLabel millisecondsLabel;
-    private boolean isRunning;
-    private int hours;
-    private int minutes;
-    private int seconds;
-    private int milliseconds;
+    private StopwatchDisplay display;
+    private int frameRate;
     private JButton startPauseButton;
     private JButton resetButton;
     private JButton lapButton;
     private JList<String> lapList;
-    private DefaultListModel<String> lapListModel;
-    private List<Long> lapTimes;
-    private long startTime;
-    private long elapsedTime;
+    private LapListModel lapListModel;
+    private JButton exportButton;
+    private final JLabel[] statisticLabels = new JLabel[7];
+    private static final String[] STATISTIC_NAMES = {"Best", "Worst", "Mean", "Std dev", "p50", "p90", "p99"};
 
     private final Color NEON_PURPLE = new Color(187, 134, 252);
     private final Color NEON_GREEN = new Color(0, 255, 128);
     private final Color NEON_RED = new Color(255, 69, 58);
     private final Color DARK_BG = new Color(18, 18, 18);
-    private final Font DIGITAL_FONT = new Font("DS-Digital", Font.BOLD, 72);
+    private final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
 
-    public StopwatchWindow() {
-        lapTimes = new ArrayList<>();
+    public StopwatchWindow(ClockEngine engine) {
+        this.engine = engine;
+        this.stopwatch = engine.createStopwatch();
         setupWindow();
         setupStopwatchDisplay();
         setupLapDisplay();
@@ -524,7 +770,7 @@ class StopwatchWindow extends JFrame {
 
     private void setupWindow() {
         setTitle("Stopwatch");
-        setSize(500, 500);
+        setSize(700, 500);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout(20, 20));
         getContentPane().setBackground(DARK_BG);
@@ -537,6 +783,7 @@ class StopwatchWindow extends JFrame {
                 if (stopwatchTimer != null) {
                     stopwatchTimer.stop();
                 }
+                engine.removeStopwatch(stopwatch);
             }
         });
     }
@@ -548,18 +795,16 @@ class StopwatchWindow extends JFrame {
         timeLabel = new JLabel("00:00:00", SwingConstants.CENTER);
         millisecondsLabel = new JLabel(".000", SwingConstants.LEFT);
 
-        try {
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            ge.registerFont(Font.createFont(Font.TRUETYPE_FONT, new File("fonts/DS-Digital.ttf")));
-            timeLabel.setFont(DIGITAL_FONT);
-            millisecondsLabel.setFont(DIGITAL_FONT.deriveFont(48f));
-        } catch (Exception e) {
-            timeLabel.setFont(new Font("Monospaced", Font.BOLD, 72));
-            millisecondsLabel.setFont(new Font("Monospaced", Font.BOLD, 48));
-        }
+        timeLabel.setFont(DigitalFont.get(72f));
+        millisecondsLabel.setFont(DigitalFont.get(48f));
+        DigitalFont.whenLoaded(font -> {
+            timeLabel.setFont(font.deriveFont(72f));
+            millisecondsLabel.setFont(font.deriveFont(48f));
+        });
 
         timeLabel.setForeground(NEON_PURPLE);
         millisecondsLabel.setForeground(NEON_PURPLE);
+        display = new StopwatchDisplay(timeLabel, millisecondsLabel);
 
         JPanel displayPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
         displayPanel.setBackground(DARK_BG);
@@ -576,8 +821,10 @@ class StopwatchWindow extends JFrame {
     }
 
     private void setupLapDisplay() {
-        lapListModel = new DefaultListModel<>();
+        lapListModel = new LapListModel(stopwatch.getLaps());
         lapList = new JList<>(lapListModel);
+        // A fixed cell size keeps JList from measuring every row; only visible laps get formatted.
+        lapList.setPrototypeCellValue(LapListModel.PROTOTYPE_ROW);
         lapList.setBackground(DARK_BG);
         lapList.setForeground(Color.WHITE);
         lapList.setFont(new Font("Monospaced", Font.PLAIN, 16));
@@ -588,7 +835,61 @@ class StopwatchWindow extends JFrame {
         scrollPane.getViewport().setBackground(DARK_BG);
         scrollPane.setBorder(BorderFactory.createLineBorder(NEON_GREEN, 1));
 
-        add(scrollPane, BorderLayout.CENTER);
+        JPanel lapPanel = new JPanel(new BorderLayout(10, 0));
+        lapPanel.setBackground(DARK_BG);
+        lapPanel.add(scrollPane, BorderLayout.CENTER);
+        lapPanel.add(createStatisticsPanel(), BorderLayout.EAST);
+        add(lapPanel, BorderLayout.CENTER);
+    }
+
+    private JPanel createStatisticsPanel() {
+        JPanel statsPanel = new JPanel(new GridLayout(STATISTIC_NAMES.length, 2, 10, 4));
+        statsPanel.setBackground(DARK_BG);
+        statsPanel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(NEON_GREEN, 1),
+                new EmptyBorder(5, 10, 5, 10)
+        ));
+        for (int i = 0; i < STATISTIC_NAMES.length; i++) {
+            JLabel nameLabel = new JLabel(STATISTIC_NAMES[i]);
+            nameLabel.setForeground(NEON_PURPLE);
+            nameLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
+            statisticLabels[i] = new JLabel("--:--:--.---");
+            statisticLabels[i].setForeground(Color.WHITE);
+            statisticLabels[i].setFont(new Font("Monospaced", Font.PLAIN, 14));
+            statsPanel.add(nameLabel);
+            statsPanel.add(statisticLabels[i]);
+        }
+        return statsPanel;
+    }
+
+    private void updateStatistics() {
+        LapStatistics stats = stopwatch.getStatistics();
+        if (stats.getCount() == 0) {
+            for (JLabel label : statisticLabels) {
+                label.setText("--:--:--.---");
+            }
+            return;
+        }
+        statisticLabels[0].setText(LapStore.formatTime(stats.getBest()));
+        statisticLabels[1].setText(LapStore.formatTime(stats.getWorst()));
+        statisticLabels[2].setText(LapStore.formatTime(Math.round(stats.getMean())));
+        statisticLabels[3].setText(LapStore.formatTime(Math.round(stats.getStandardDeviation())));
+        statisticLabels[4].setText(LapStore.formatTime(stats.getPercentile(50)));
+        statisticLabels[5].setText(LapStore.formatTime(stats.getPercentile(90)));
+        statisticLabels[6].setText(LapStore.formatTime(stats.getPercentile(99)));
+    }
+
+    private void exportStatistics() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("lap-statistics.csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(fileChooser.getSelectedFile().toPath())) {
+            stopwatch.getStatistics().writeCsv(writer);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not export statistics: " + e.getMessage());
+        }
     }
 
     private void setupButtonPanel() {
@@ -598,17 +899,21 @@ class StopwatchWindow extends JFrame {
         startPauseButton = createStyledButton("Start", NEON_GREEN);
         resetButton = createStyledButton("Reset", NEON_RED);
         lapButton = createStyledButton("Lap", NEON_PURPLE);
+        exportButton = createStyledButton("Export", NEON_PURPLE);
 
         resetButton.setEnabled(false);
         lapButton.setEnabled(false);
+        exportButton.setEnabled(false);
 
         startPauseButton.addActionListener(e -> handleStartPause());
         resetButton.addActionListener(e -> handleReset());
         lapButton.addActionListener(e -> handleLap());
+        exportButton.addActionListener(e -> exportStatistics());
 
         buttonPanel.add(startPauseButton);
         buttonPanel.add(lapButton);
         buttonPanel.add(resetButton);
+        buttonPanel.add(exportButton);
 
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -617,20 +922,7 @@ class StopwatchWindow extends JFrame {
         JButton button = new JButton(text) {
             @Override
             protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                GradientPaint gradient = new GradientPaint(0, 0, mainColor.darker(), 0, getHeight(), mainColor.darker().darker());
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 20, 20);
-                g2d.setColor(new Color(mainColor.getRed(), mainColor.getGreen(), mainColor.getBlue(), 50));
-                g2d.setStroke(new BasicStroke(2));
-                g2d.drawRoundRect(2, 2, getWidth() - 5, getHeight() - 5, 20, 20);
-                g2d.setColor(Color.WHITE);
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 14));
-                FontMetrics fm = g2d.getFontMetrics();
-                int textX = (getWidth() - fm.stringWidth(getText())) / 2;
-                int textY = (getHeight() + fm.getAscent() - fm.getDescent()) / 2;
-                g2d.drawString(getText(), textX, textY);
+                SkinCache.paintButton(g, this, mainColor, BUTTON_FONT);
             }
         };
         button.setPreferredSize(new Dimension(100, 40));
@@ -643,7 +935,7 @@ class StopwatchWindow extends JFrame {
     }
 
     private void handleStartPause() {
-        if (!isRunning) {
+        if (!stopwatch.isRunning()) {
             startStopwatch();
         } else {
             pauseStopwatch();
@@ -651,29 +943,28 @@ class StopwatchWindow extends JFrame {
     }
 
     private void startStopwatch() {
-        if (!isRunning) {
-            isRunning = true;
+        if (!stopwatch.isRunning()) {
+            stopwatch.start();
             startPauseButton.setText("Pause");
             resetButton.setEnabled(true);
             lapButton.setEnabled(true);
 
-            if (startTime == 0) {
-                startTime = System.currentTimeMillis() - elapsedTime;
-            } else {
-                startTime = System.currentTimeMillis() - elapsedTime;
-            }
-
-            stopwatchTimer = new Timer(1, e -> updateDisplay());
+            // One repaint per display frame; faster updates would never reach the screen.
+            stopwatchTimer = new Timer(1000 / getFrameRate(), e -> {
+                tickProbe.fired(stopwatchTimer.getDelay());
+                updateDisplay();
+            });
+            tickProbe.restart();
             stopwatchTimer.start();
         }
     }
 
     private void pauseStopwatch() {
-        if (isRunning) {
-            isRunning = false;
+        if (stopwatch.isRunning()) {
+            stopwatch.pause();
             stopwatchTimer.stop();
+            updateDisplay();
             startPauseButton.setText("Resume");
-            elapsedTime = System.currentTimeMillis() - startTime;
         }
     }
 
@@ -681,15 +972,11 @@ class StopwatchWindow extends JFrame {
         if (stopwatchTimer != null) {
             stopwatchTimer.stop();
         }
-        isRunning = false;
-        startTime = System.currentTimeMillis() ;
-        elapsedTime = 0;
-        hours = 0;
-        minutes = 0;
-        seconds = 0;
-        milliseconds = 0;
-        lapTimes.clear();
-        lapListModel.clear();
+        int lapCount = stopwatch.getLapCount();
+        stopwatch.reset();
+        lapListModel.lapsCleared(lapCount);
+        updateStatistics();
+        exportButton.setEnabled(false);
         updateDisplay();
         startPauseButton.setText("Start");
         resetButton.setEnabled(false);
@@ -697,61 +984,50 @@ class StopwatchWindow extends JFrame {
     }
 
     private void handleLap() {
-        if (isRunning) {
-            long currentTime = System.currentTimeMillis() - startTime;
-            lapTimes.add(currentTime);
-
-            // Calculate lap time
-            long lapTime = currentTime;
-            if (lapTimes.size() > 1) {
-                lapTime = currentTime - lapTimes.get(lapTimes.size() - 2);
-            }
-
-            String lapTimeStr = formatTime(lapTime);
-            String totalTimeStr = formatTime(currentTime);
-
-            lapListModel.insertElementAt(
-                    String.format("Lap %d    %s    Total: %s",
-                            lapTimes.size(), lapTimeStr, totalTimeStr),
-                    0
-            );
+        if (stopwatch.isRunning()) {
+            engine.recordLap(stopwatch);
+            lapListModel.lapAdded();
+            updateStatistics();
+            exportButton.setEnabled(true);
         }
     }
 
     private void updateDisplay() {
-        long currentTime = System.currentTimeMillis() - startTime;
-        hours = (int) (currentTime / 3600000);
-        minutes = (int) ((currentTime / 60000) % 60);
-        seconds = (int) ((currentTime / 1000) % 60);
-        milliseconds = (int) (currentTime % 1000);
-
-        timeLabel.setText(String.format("%02d:%02d:%02d", hours, minutes, seconds));
-        millisecondsLabel.setText(String.format(".%03d", milliseconds));
+        display.render(stopwatch.getElapsedMillis());
     }
 
-    private String formatTime(long timeInMillis) {
-        long hours = timeInMillis / 3600000;
-        long minutes = (timeInMillis / 60000) % 60;
-        long seconds = (timeInMillis / 1000) % 60;
-        long millis = timeInMillis % 1000;
+    public int getFrameRate() {
+        if (frameRate <= 0) {
+            frameRate = StopwatchDisplay.frameRateFor(this);
+        }
+        return frameRate;
+    }
 
-        return String.format("%02d:%02d:%02d.%03d", hours, minutes, seconds, millis);
+    public void setFrameRate(int frameRate) {
+        this.frameRate = frameRate;
+        if (stopwatchTimer != null) {
+            stopwatchTimer.setDelay(1000 / getFrameRate());
+        }
     }
 }
 
 class AlarmManagementWindow extends JFrame {
     private ClockApp mainApp;
-    private JPanel alarmsPanel;
+    private JList<Alarm> alarmList;
+    private AlarmRow alarmRow;
+    private int hoveredIndex = -1;
+    private JButton hoveredButton;
     private final Color NEON_PURPLE = new Color(187, 134, 252);
     private final Color NEON_BLUE = new Color(3, 218, 247);
     private final Color DARK_BG = new Color(18, 18, 18);
     private final Font WINDOW_FONT = new Font("Segoe UI", Font.PLAIN, 14);
 
-    public AlarmManagementWindow(ClockApp app) {
+    public AlarmManagementWindow(ClockApp app, AlarmListModel alarms) {
         this.mainApp = app;
         setTitle("Alarm Management");
         setSize(400, 500);
         setLocationRelativeTo(app);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
         getContentPane().setBackground(DARK_BG);
         getRootPane().setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -767,11 +1043,30 @@ class AlarmManagementWindow extends JFrame {
         headerLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         mainPanel.add(headerLabel, BorderLayout.NORTH);
 
-        alarmsPanel = new JPanel();
-        alarmsPanel.setLayout(new BoxLayout(alarmsPanel, BoxLayout.Y_AXIS));
-        alarmsPanel.setBackground(DARK_BG);
+        // One renderer row stamps every visible alarm; with a prototype cell the list
+        // never has to measure the rows that are scrolled out of view.
+        alarmRow = new AlarmRow();
+        alarmList = new JList<>(alarms);
+        alarmList.setCellRenderer(alarmRow);
+        alarmList.setPrototypeCellValue(new Alarm("00:00:00", AudioService.DEFAULT_TUNE, 0, 0));
+        alarmList.setBackground(DARK_BG);
+        alarmList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        alarmList.setFocusable(false);
+        java.awt.event.MouseAdapter rowMouse = new java.awt.event.MouseAdapter() {
+            public void mouseMoved(java.awt.event.MouseEvent evt) {
+                setHovered(evt.getPoint());
+            }
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                setHovered(null);
+            }
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                handleRowClick(evt.getPoint());
+            }
+        };
+        alarmList.addMouseListener(rowMouse);
+        alarmList.addMouseMotionListener(rowMouse);
 
-        JScrollPane scrollPane = new JScrollPane(alarmsPanel);
+        JScrollPane scrollPane = new JScrollPane(alarmList);
         scrollPane.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(NEON_BLUE, 2),
                 BorderFactory.createEmptyBorder(10, 10, 10, 10)
@@ -787,57 +1082,111 @@ class AlarmManagementWindow extends JFrame {
         addAlarmButton.addActionListener(e -> openAddAlarmWindow());
         buttonPanel.add(addAlarmButton);
 
+        JButton importButton = createStyledButton("Import");
+        importButton.addActionListener(e -> importAlarms());
+        buttonPanel.add(importButton);
+
+        JButton exportButton = createStyledButton("Export");
+        exportButton.addActionListener(e -> exportAlarms());
+        buttonPanel.add(exportButton);
+
         add(mainPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
-        updateAlarmsList();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                // The model outlives this window; detach so it does not keep the list alive.
+                alarmList.setModel(new DefaultListModel<>());
+            }
+        });
     }
 
-    public void updateAlarmsList() {
-        alarmsPanel.removeAll();
-        for (Alarm alarm : mainApp.getAlarms()) {
-            JPanel alarmPanel = createStyledAlarmPanel(alarm);
-            alarmsPanel.add(alarmPanel);
-            alarmsPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+    private void importAlarms() {
+        JFileChooser fileChooser = new JFileChooser();
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
-        alarmsPanel.revalidate();
-        alarmsPanel.repaint();
+        File file = fileChooser.getSelectedFile();
+        runTransfer("alarm-import", () -> mainApp.importAlarms(file).toString());
     }
 
-    private JPanel createStyledAlarmPanel(Alarm alarm) {
-        JPanel alarmPanel = new JPanel();
-        alarmPanel.setLayout(new BorderLayout(10, 0));
-        alarmPanel.setBackground(DARK_BG.brighter());
-        alarmPanel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(NEON_PURPLE, 1),
-                BorderFactory.createEmptyBorder(10, 15, 10, 15)
-        ));
-        alarmPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 60));
-
-        JPanel infoPanel = new JPanel(new GridLayout(2, 1, 0, 2));
-        infoPanel.setBackground(DARK_BG.brighter());
-
-        JLabel timeLabel = new JLabel("⏰ " + alarm.getAlarmTime());
-        timeLabel.setFont(WINDOW_FONT);
-        timeLabel.setForeground(Color.WHITE);
-
-        JLabel tuneLabel = new JLabel("🎵 " + new File(alarm.getAlarmTune()).getName());
-        tuneLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        tuneLabel.setForeground(Color.LIGHT_GRAY);
-
-        infoPanel.add(timeLabel);
-        infoPanel.add(tuneLabel);
-        alarmPanel.add(infoPanel, BorderLayout.CENTER);
+    private void exportAlarms() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("alarms.csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        runTransfer("alarm-export", () -> "Exported " + mainApp.exportAlarms(file) + " alarms");
+    }
+
+    /**
+     * Runs a file transfer on its own thread, so a large file never stalls the EDT, and
+     * reports the outcome once it finishes. Imported rows reach the list through the engine.
+     */
+    private void runTransfer(String name, Callable<String> transfer) {
+        Thread thread = new Thread(() -> {
+            String message;
+            try {
+                message = transfer.call();
+            } catch (Exception e) {
+                message = "Transfer failed: " + e.getMessage();
+            }
+            String text = message;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, text));
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * The Edit or Delete button of the row under {@code point}, or null.
+     */
+    private JButton buttonAt(Point point) {
+        int index = point == null ? -1 : alarmList.locationToIndex(point);
+        if (index < 0) {
+            return null;
+        }
+        Rectangle cell = alarmList.getCellBounds(index, index);
+        if (!cell.contains(point)) {
+            return null;
+        }
+        alarmRow.getListCellRendererComponent(alarmList, alarmList.getModel().getElementAt(index), index, false, false);
+        alarmRow.setBounds(0, 0, cell.width, cell.height);
+        alarmRow.layoutRow();
+        Component hit = SwingUtilities.getDeepestComponentAt(alarmRow, point.x - cell.x, point.y - cell.y);
+        return hit instanceof JButton ? (JButton) hit : null;
+    }
 
-        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
-        buttonsPanel.setBackground(DARK_BG.brighter());
+    private void setHovered(Point point) {
+        JButton button = buttonAt(point);
+        int index = button == null ? -1 : alarmList.locationToIndex(point);
+        if (index == hoveredIndex && button == hoveredButton) {
+            return;
+        }
+        repaintRow(hoveredIndex);
+        hoveredIndex = index;
+        hoveredButton = button;
+        repaintRow(hoveredIndex);
+        alarmList.setCursor(button == null ? Cursor.getDefaultCursor() : new Cursor(Cursor.HAND_CURSOR));
+    }
 
-        JButton editButton = createStyledButton("Edit");
-        editButton.addActionListener(e -> openEditAlarmWindow(alarm));
+    private void repaintRow(int index) {
+        if (index >= 0 && index < alarmList.getModel().getSize()) {
+            alarmList.repaint(alarmList.getCellBounds(index, index));
+        }
+    }
 
-        JButton deleteButton = createStyledButton("Delete");
-        deleteButton.setBackground(new Color(255, 69, 58).darker());
-        deleteButton.addActionListener(e -> {
+    private void handleRowClick(Point point) {
+        JButton button = buttonAt(point);
+        if (button == null) {
+            return;
+        }
+        Alarm alarm = alarmList.getModel().getElementAt(alarmList.locationToIndex(point));
+        if (button == alarmRow.editButton) {
+            openEditAlarmWindow(alarm);
+        } else {
             int choice = JOptionPane.showConfirmDialog(
                     this,
                     "Are you sure you want to delete this alarm?",
@@ -847,15 +1196,75 @@ class AlarmManagementWindow extends JFrame {
             );
             if (choice == JOptionPane.YES_OPTION) {
                 mainApp.removeAlarm(alarm);
-                updateAlarmsList();
             }
-        });
+        }
+    }
+
+    /**
+     * Renderer for one alarm, reused for every visible row. Its buttons are only painted;
+     * clicks are hit-tested against them by the window.
+     */
+    private class AlarmRow extends JPanel implements ListCellRenderer<Alarm> {
+        private final JLabel timeLabel = new JLabel();
+        private final JLabel tuneLabel = new JLabel();
+        private final JButton editButton = createStyledButton("Edit");
+        private final JButton deleteButton = createStyledButton("Delete");
+        private final Color deleteColor = new Color(255, 69, 58).darker();
+        private final JPanel infoPanel = new JPanel(new GridLayout(2, 1, 0, 2));
+        private final JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+
+        AlarmRow() {
+            setLayout(new BorderLayout());
+            setBackground(DARK_BG);
+            setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+
+            JPanel alarmPanel = new JPanel(new BorderLayout(10, 0));
+            alarmPanel.setBackground(DARK_BG.brighter());
+            alarmPanel.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(NEON_PURPLE, 1),
+                    BorderFactory.createEmptyBorder(10, 15, 10, 15)
+            ));
+
+            infoPanel.setBackground(DARK_BG.brighter());
+            timeLabel.setFont(WINDOW_FONT);
+            timeLabel.setForeground(Color.WHITE);
+            tuneLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            tuneLabel.setForeground(Color.LIGHT_GRAY);
+            infoPanel.add(timeLabel);
+            infoPanel.add(tuneLabel);
+            alarmPanel.add(infoPanel, BorderLayout.CENTER);
+
+            buttonsPanel.setBackground(DARK_BG.brighter());
+            buttonsPanel.add(editButton);
+            buttonsPanel.add(deleteButton);
+            alarmPanel.add(buttonsPanel, BorderLayout.EAST);
+
+            add(alarmPanel, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Alarm> list, Alarm alarm, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            timeLabel.setText("⏰ " + alarm.getAlarmTime() + " · " + alarm.getRecurrence().describe());
+            tuneLabel.setText("🎵 " + alarm.getTuneName());
+            boolean hovered = index == hoveredIndex;
+            editButton.setBackground(hovered && hoveredButton == editButton ? NEON_BLUE : NEON_BLUE.darker());
+            deleteButton.setBackground(hovered && hoveredButton == deleteButton ? deleteColor.brighter() : deleteColor);
+            return this;
+        }
 
-        buttonsPanel.add(editButton);
-        buttonsPanel.add(deleteButton);
-        alarmPanel.add(buttonsPanel, BorderLayout.EAST);
+        void layoutRow() {
+            layoutTree(this);
+        }
 
-        return alarmPanel;
+        private void layoutTree(Container container) {
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                if (child instanceof Container) {
+                    layoutTree((Container) child);
+                }
+            }
+        }
     }
 
     private JButton createStyledButton(String text) {
@@ -891,130 +1300,6 @@ class AlarmManagementWindow extends JFrame {
     }
 }
 
-class Clock {
-    private String displayFormat = "HH:mm:ss";
-
-    public String getCurrentTime() {
-        return new SimpleDateFormat(displayFormat).format(new Date());
-    }
-
-    public String checkAlarmHelper() {
-        return new SimpleDateFormat("HH:mm:ss").format(new Date());
-    }
-
-    public void setDisplayFormat(String format) {
-        if (format.equals("12-Hour")) {
-            displayFormat = "hh:mm:ss a";
-        } else {
-            displayFormat = "HH:mm:ss";
-        }
-    }
-}
-
-class Alarm {
-    private String alarmTime;
-    private String alarmTune;
-    private int snoozeTime;
-    private int noOfSnoozes;
-    protected int snoozedCount;
-    private Clip clip;
-    Timer snoozeTimer;
-    private boolean isSnoozing = false;
-
-    public Alarm(String time, String tune, int snooze, int noOfSnoozes) {
-        this.alarmTime = time;
-        this.alarmTune = tune;
-        this.snoozeTime = snooze;
-        this.noOfSnoozes = noOfSnoozes;
-        this.snoozedCount = 0;
-    }
-
-    public String getAlarmTime() {
-        return alarmTime;
-    }
-
-    public String getAlarmTune() {
-        return alarmTune;
-    }
-
-    public int getSnoozeTime() {
-        return snoozeTime;
-    }
-
-    public int getNoOfSnoozes() {
-        return noOfSnoozes;
-    }
-
-    public void setAlarmTime(String time) {
-        this.alarmTime = time;
-    }
-
-    public void setAlarmTune(String tune) {
-        this.alarmTune = tune;
-    }
-
-    public void setSnoozeTime(int snooze) {
-        this.snoozeTime = snooze;
-    }
-
-    public void setNoOfSnoozes(int snoozes) {
-        this.noOfSnoozes = snoozes;
-    }
-
-    public void snooze() {
-        if (snoozedCount < noOfSnoozes) {
-            snoozedCount++;
-            String[] timeParts = alarmTime.split(":");
-            int hour = Integer.parseInt(timeParts[0]);
-            int minute = Integer.parseInt(timeParts[1]) + snoozeTime;
-
-            if (minute >= 60) {
-                hour += minute / 60;
-                minute = minute % 60;
-            }
-
-            hour = hour % 24;
-            alarmTime = String.format("%02d:%02d:00", hour, minute);
-            isSnoozing = true;
-            System.out.println("Alarm snoozed for " + snoozeTime + " minutes. New time: " + alarmTime);
-        } else {
-            System.out.println("No more snoozes allowed.");
-        }
-    }
-
-    public void cancelSnooze() {
-        if (snoozeTimer != null) {
-            snoozeTimer.stop();
-            snoozeTimer = null;
-        }
-        isSnoozing = false;
-    }
-
-    public boolean isSnoozing() {
-        return isSnoozing;
-    }
-
-    public void playAlarmTune() {
-        try {
-            File audioFile = new File(alarmTune);
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-            clip = AudioSystem.getClip();
-            clip.open(audioStream);
-            clip.loop(Clip.LOOP_CONTINUOUSLY);
-            clip.start();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    public void stopAlarmTune() {
-        if (clip != null && clip.isRunning()) {
-            clip.stop();
-            clip.close();
-        }
-    }
-}
-
 class ClockSettings extends JFrame {
     private Color textColor;
     private Color backgroundColor;
@@ -1068,6 +1353,7 @@ class ClockSettings extends JFrame {
         JComboBox<String> formatComboBox = createStyledComboBox(formats);
         formatComboBox.addActionListener(e -> {
             clock.setDisplayFormat((String) formatComboBox.getSelectedItem());
+            app.refreshTimeDisplay();
             updatePreview();
         });
         formatPanel.add(formatComboBox);
@@ -1141,7 +1427,7 @@ class ClockSettings extends JFrame {
         ));
         previewPanel.setPreferredSize(new Dimension(0, 100));
         previewLabel = new JLabel(clock.getCurrentTime(), SwingConstants.CENTER);
-        previewLabel.setFont(new Font("DS-Digital", Font.BOLD, 48));
+        previewLabel.setFont(DigitalFont.get(48f));
         previewLabel.setForeground(textColor);
         previewPanel.add(previewLabel, BorderLayout.CENTER);
         Timer previewTimer = new Timer(1000, e -> updatePreview());
@@ -1289,6 +1575,11 @@ class EditAlarmWindow extends JFrame {
         snoozesPanel.add(noOfSnoozesField);
         settingsPanel.add(snoozesPanel);
 
+        JPanel repeatPanel = createSettingPanel("Repeat");
+        RecurrenceChooser repeatChooser = new RecurrenceChooser(alarm.getRecurrence(), SETTINGS_FONT, NEON_BLUE);
+        repeatPanel.add(repeatChooser);
+        settingsPanel.add(repeatPanel);
+
         mainPanel.add(settingsPanel);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
@@ -1296,11 +1587,21 @@ class EditAlarmWindow extends JFrame {
         JButton saveButton = createStyledButton("Save Changes");
         saveButton.addActionListener(e -> {
             String time = String.format("%02d:%02d:00", hourComboBox.getSelectedItem(), minuteComboBox.getSelectedItem());
-            alarm.setAlarmTime(time);
-            alarm.setAlarmTune(tuneField.getText());
-            alarm.setSnoozeTime(Integer.parseInt(snoozeField.getText()));
-            alarm.setNoOfSnoozes(Integer.parseInt(noOfSnoozesField.getText()));
-            parentWindow.updateAlarmsList();
+            int secondOfDay = LocalTime.parse(time).toSecondOfDay();
+            int snoozeTime;
+            int noOfSnoozes;
+            Recurrence recurrence;
+            // Read everything first, so bad input leaves the alarm unchanged. The engine
+            // applies the new values under its lock.
+            try {
+                snoozeTime = Integer.parseInt(snoozeField.getText().trim());
+                noOfSnoozes = Integer.parseInt(noOfSnoozesField.getText().trim());
+                recurrence = repeatChooser.getRecurrence(secondOfDay);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid alarm settings: " + ex.getMessage());
+                return;
+            }
+            app.updateAlarm(alarm, secondOfDay, tuneField.getText(), snoozeTime, noOfSnoozes, recurrence);
             dispose();
         });
 
@@ -1428,7 +1729,7 @@ class AddAlarmWindow extends JFrame {
         settingsPanel.add(timePanel);
 
         JPanel tunePanel = createSettingPanel("Alarm Tune");
-        JTextField tuneField = createStyledTextField("./AlarmSound/default_alarm.WAV");
+        JTextField tuneField = createStyledTextField(AudioService.DEFAULT_TUNE);
         JButton tuneButton = createStyledButton("Choose Tune");
         tuneButton.addActionListener(e -> {
             JFileChooser fileChooser = new JFileChooser();
@@ -1441,15 +1742,20 @@ class AddAlarmWindow extends JFrame {
         settingsPanel.add(tunePanel);
 
         JPanel snoozePanel = createSettingPanel("Snooze Time (minutes)");
-        JTextField snoozeField = createStyledTextField("1");
+        JTextField snoozeField = createStyledTextField(String.valueOf(Alarm.DEFAULT_SNOOZE_MINUTES));
         snoozePanel.add(snoozeField);
         settingsPanel.add(snoozePanel);
 
         JPanel snoozesPanel = createSettingPanel("Number of Snoozes");
-        JTextField noOfSnoozesField = createStyledTextField("1");
+        JTextField noOfSnoozesField = createStyledTextField(String.valueOf(Alarm.DEFAULT_SNOOZES));
         snoozesPanel.add(noOfSnoozesField);
         settingsPanel.add(snoozesPanel);
 
+        JPanel repeatPanel = createSettingPanel("Repeat");
+        RecurrenceChooser repeatChooser = new RecurrenceChooser(Recurrence.once(), SETTINGS_FONT, NEON_BLUE);
+        repeatPanel.add(repeatChooser);
+        settingsPanel.add(repeatPanel);
+
         mainPanel.add(settingsPanel);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
@@ -1457,12 +1763,19 @@ class AddAlarmWindow extends JFrame {
         JButton saveButton = createStyledButton("Add Alarm");
         saveButton.addActionListener(e -> {
             String time = String.format("%02d:%02d:00", hourComboBox.getSelectedItem(), minuteComboBox.getSelectedItem());
-            Alarm newAlarm = new Alarm(
-                    time,
-                    tuneField.getText(),
-                    Integer.parseInt(snoozeField.getText()),
-                    Integer.parseInt(noOfSnoozesField.getText())
-            );
+            Alarm newAlarm;
+            try {
+                newAlarm = new Alarm(
+                        time,
+                        tuneField.getText(),
+                        Integer.parseInt(snoozeField.getText().trim()),
+                        Integer.parseInt(noOfSnoozesField.getText().trim())
+                );
+                newAlarm.setRecurrence(repeatChooser.getRecurrence(newAlarm.getSecondOfDay()));
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid alarm settings: " + ex.getMessage());
+                return;
+            }
             app.addAlarm(newAlarm);
             dispose();
         });
@@ -1551,12 +1864,6 @@ class AlarmRingWindow extends JFrame {
     public AlarmRingWindow(Alarm alarm, ClockApp app) {
         this.app = app;
         this.alarm = alarm;
-
-        if (alarm.isSnoozing()) {
-            return;
-        }
-
-        alarm.playAlarmTune();
         setupWindow();
     }
 
@@ -1569,7 +1876,7 @@ class AlarmRingWindow extends JFrame {
         getContentPane().setBackground(DARK_BG);
         getRootPane().setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
-        JPanel centerPanel = new JPanel(new GridLayout(2, 1, 10, 10));
+        JPanel centerPanel = new JPanel(new GridLayout(3, 1, 10, 10));
         centerPanel.setBackground(DARK_BG);
         centerPanel.setBorder(BorderFactory.createEmptyBorder(15, 10, 15, 10));
 
@@ -1581,6 +1888,18 @@ class AlarmRingWindow extends JFrame {
         snoozeLabel.setHorizontalAlignment(SwingConstants.CENTER);
         centerPanel.add(snoozeLabel);
 
+        JLabel tuneLabel = createStyledLabel("🎵 " + alarm.getTuneName());
+        tuneLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        centerPanel.add(tuneLabel);
+        AudioService.Playback playback = alarm.getPlayback();
+        if (playback != null) {
+            playback.finished().thenAccept(done -> {
+                if (done.isFailed()) {
+                    SwingUtilities.invokeLater(() -> tuneLabel.setText("🎵 " + alarm.getTuneName() + " could not be played"));
+                }
+            });
+        }
+
         add(centerPanel, BorderLayout.CENTER);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
@@ -1588,33 +1907,18 @@ class AlarmRingWindow extends JFrame {
 
         JButton stopButton = createStyledButton("Stop");
         stopButton.addActionListener(e -> {
-            alarm.stopAlarmTune();
-            app.removeAlarm(alarm);
+            app.stopAlarm(alarm);
             dispose();
         });
 
         JButton snoozeButton = createStyledButton("Snooze");
         snoozeButton.addActionListener(e -> {
             if (alarm.getNoOfSnoozes() > alarm.snoozedCount) {
-                alarm.cancelSnooze();
-                alarm.snooze();
-                alarm.stopAlarmTune();
+                app.snoozeAlarm(alarm);
                 dispose();
-
-                Timer snoozeTimer = new Timer(alarm.getSnoozeTime() * 60 * 1000, ev -> {
-                    if (!alarm.isSnoozing()) {
-                        return;
-                    }
-                    SwingUtilities.invokeLater(() -> new AlarmRingWindow(alarm, app).setVisible(true));
-                    alarm.cancelSnooze();
-                });
-                alarm.snoozeTimer = snoozeTimer;
-                snoozeTimer.setRepeats(false);
-                snoozeTimer.start();
             } else {
                 showStyledErrorDialog("No more snoozes remaining!");
-                app.removeAlarm(alarm);
-                alarm.stopAlarmTune();
+                app.stopAlarm(alarm);
                 dispose();
             }
         });
@@ -0,0 +1,705 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Headless core of the clock: owns the {@link Clock}, the alarm registry, snoozes,
+ * countdowns and stopwatches, and drives them from a {@link TickSource} on its own
+ * scheduler thread. It has no AWT or Swing dependency; windows are views that register a
+ * {@link Listener} and hop onto the EDT themselves.
+ */
+class ClockEngine {
+    private static final int EVENT_CAPACITY = 4096;
+
+    interface Listener {
+        /** Called on the engine thread once per tick, after every due entry has fired. */
+        default void onTick(long epochSecond) {
+        }
+
+        /** Called on the engine thread when an alarm starts ringing. */
+        default void onAlarmFired(Alarm alarm) {
+        }
+
+        /** Called when {@code alarm} is inserted at {@code index} of {@link #getAlarms()}. */
+        default void onAlarmAdded(int index, Alarm alarm) {
+        }
+
+        /**
+         * Called once for a batch of alarms inserted from {@code index} of {@link #getAlarms()}.
+         * By default reports each alarm through {@link #onAlarmAdded}.
+         */
+        default void onAlarmsAdded(int index, List<Alarm> added) {
+            for (int i = 0; i < added.size(); i++) {
+                onAlarmAdded(index + i, added.get(i));
+            }
+        }
+
+        /** Called when the alarm at {@code index} is edited or snoozed. */
+        default void onAlarmUpdated(int index, Alarm alarm) {
+        }
+
+        /** Called when the alarm at {@code index} is removed. */
+        default void onAlarmRemoved(int index, Alarm alarm) {
+        }
+    }
+
+    private final Clock clock = new Clock();
+    private AlarmTable table = new AlarmTable();
+    private final List<Alarm> alarms = new ArrayList<>();
+    private final List<Alarm> due = new ArrayList<>();
+    private long[] dueSeconds = new long[16];
+    private final OccurrenceQueue occurrences = new OccurrenceQueue();
+    private final ZoneOffsetCache offsets = new ZoneOffsetCache();
+    private long lastLocalSecond;
+    private long lastSecond;
+    private final List<Countdown> countdowns = new ArrayList<>();
+    private final List<Stopwatch> stopwatches = new ArrayList<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+    private final TickSource tickSource;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final EventBus events = new EventBus(EVENT_CAPACITY);
+    private AlarmStore store;
+
+    public ClockEngine() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "clock-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tickSource = new TickSource(executor, (fromSecond, toSecond) -> tick(toSecond));
+        lastSecond = System.currentTimeMillis() / 1000;
+        lastLocalSecond = offsets.toLocalSecond(lastSecond);
+    }
+
+    public void start() {
+        if (Boolean.getBoolean("clock.logEvents")) {
+            events.subscribe("event-log", new EventBus.Subscriber() {
+                @Override
+                public void onEvent(EventBus.Event event) {
+                    System.out.println("Event " + event);
+                }
+
+                @Override
+                public void onMissed(long count) {
+                    System.out.println("Event log fell behind; " + count + " events dropped");
+                }
+            });
+        }
+        tickSource.start();
+    }
+
+    public void stop() {
+        tickSource.stop();
+        executor.shutdown();
+        AlarmStore attached;
+        synchronized (this) {
+            attached = store;
+        }
+        if (attached != null) {
+            attached.close();
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * Restores the alarms saved in {@code alarmStore} and journals every later change to it.
+     * The files are read into a new table without holding the engine lock, so call this
+     * once, off the EDT, before {@link #start()}. Alarms added in the meantime are kept and
+     * saved after the restored ones.
+     */
+    public void attachStore(AlarmStore alarmStore) throws IOException {
+        AlarmTable restored = new AlarmTable();
+        alarmStore.load(restored, this::copyAlarmColumns);
+        synchronized (this) {
+            List<Alarm> early = List.copyOf(alarms);
+            for (Alarm alarm : early) {
+                occurrences.remove(alarm.row);
+            }
+            table = restored;
+            store = alarmStore;
+            adoptRestoredRows();
+            for (Alarm alarm : early) {
+                insert(alarm);
+            }
+        }
+    }
+
+    private void adoptRestoredRows() {
+        int index = alarms.size();
+        for (int row = 0; row < table.getRowCount(); row++) {
+            if (!table.isLive(row)) {
+                continue;
+            }
+            queueOccurrence(row);
+            if (table.getSnoozeUntil(row) > lastSecond) {
+                occurrences.schedule(row, table.getSnoozeUntil(row));
+            } else if (table.isSnoozing(row)) {
+                // The snooze ran out while the clock was not running; like any missed
+                // occurrence, it does not ring late.
+                table.setSnoozeState(row, 0, 0);
+            }
+            if (table.isListed(row)) {
+                alarms.add(viewOf(row));
+            }
+        }
+        if (alarms.size() > index) {
+            List<Alarm> restored = List.copyOf(alarms.subList(index, alarms.size()));
+            for (Listener listener : listeners) {
+                listener.onAlarmsAdded(index, restored);
+            }
+        }
+    }
+
+    private synchronized AlarmTable.Columns copyAlarmColumns() {
+        return table.copyColumns();
+    }
+
+    private void journal(byte op, int row) {
+        if (store != null) {
+            store.record(op, table, row);
+        }
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Fires, snoozes, stops, timer completions and laps, published as they happen.
+     */
+    public EventBus getEvents() {
+        return events;
+    }
+
+    public TickSource getTickSource() {
+        return tickSource;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Advances the engine to {@code toSecond}; called by the tick source, and by tests. */
+    void tick(long toSecond) {
+        synchronized (this) {
+            collectDueAlarms(toSecond);
+        }
+        for (int i = 0; i < due.size(); i++) {
+            ring(due.get(i));
+            ClockMetrics.ALARM_RING.record(System.currentTimeMillis() * 1_000_000 - dueSeconds[i] * 1_000_000_000);
+        }
+        due.clear();
+        for (Listener listener : listeners) {
+            listener.onTick(toSecond);
+        }
+    }
+
+    /**
+     * Gathers the alarms due in every local second after the last one checked, so a late
+     * tick or the hour skipped when DST starts never loses an alarm. Seconds that repeat
+     * (a clock set back, the hour DST ends) are not checked twice.
+     */
+    private void collectDueAlarms(long toSecond) {
+        lastSecond = Math.max(lastSecond, toSecond);
+        // Recurring alarms and snoozes: pop what is due and queue each recurring alarm's
+        // next occurrence.
+        while (occurrences.size() > 0 && occurrences.peekTime() <= toSecond) {
+            int row = occurrences.peekRow();
+            long dueSecond = occurrences.peekTime();
+            boolean snoozeEnded = table.isSnoozing(row);
+            if (table.getRecurrence(row).isTimeOfDay()) {
+                // Queued only for its snooze; its own time rings through the per-second index.
+                occurrences.remove(row);
+            } else {
+                occurrences.schedule(row, nextOccurrence(row, toSecond));
+            }
+            addDue(markRinging(row, snoozeEnded), dueSecond);
+        }
+        long local = offsets.toLocalSecond(toSecond);
+        if (local <= lastLocalSecond) {
+            return;
+        }
+        long from = Math.max(lastLocalSecond + 1, local - AlarmTable.SECONDS_PER_DAY + 1);
+        lastLocalSecond = local;
+        for (long second = from; second <= local; second++) {
+            int secondOfDay = (int) Math.floorMod(second, (long) AlarmTable.SECONDS_PER_DAY);
+            if (!table.isDue(secondOfDay)) {
+                continue;
+            }
+            for (int row = table.firstAt(secondOfDay); row != AlarmTable.NONE; row = table.nextAt(row)) {
+                addDue(markRinging(row, false), toSecond - (local - second));
+            }
+        }
+    }
+
+    private void addDue(Alarm alarm, long dueSecond) {
+        if (due.size() == dueSeconds.length) {
+            dueSeconds = Arrays.copyOf(dueSeconds, dueSeconds.length * 2);
+        }
+        dueSeconds[due.size()] = dueSecond;
+        due.add(alarm);
+    }
+
+    /**
+     * Marks {@code row} as ringing, either because a snooze ended or for a new occurrence,
+     * which gets the full number of snoozes and replaces any snooze still pending.
+     */
+    private Alarm markRinging(int row, boolean snoozeEnded) {
+        Alarm alarm = viewOf(row);
+        if (!snoozeEnded) {
+            if (table.isSnoozing(row) && table.getRecurrence(row).isTimeOfDay()) {
+                occurrences.remove(row);
+            }
+            alarm.snoozedCount = 0;
+        }
+        alarm.cancelSnooze();
+        table.setSnoozeState(row, alarm.snoozedCount, 0);
+        journal(AlarmStore.FIRE, row);
+        events.publish(EventBus.ALARM_FIRED, row, table.getSecondOfDay(row), 0);
+        return alarm;
+    }
+
+    private long nextOccurrence(int row, long afterSecond) {
+        return table.getRecurrence(row).nextAfter(afterSecond, table.getSecondOfDay(row), offsets.getZone());
+    }
+
+    // Alarms
+
+    public synchronized void addAlarm(Alarm alarm) {
+        insert(alarm);
+        alarms.add(alarm);
+        int index = alarms.size() - 1;
+        for (Listener listener : listeners) {
+            listener.onAlarmAdded(index, alarm);
+        }
+    }
+
+    /**
+     * Adds a batch of alarms under one lock with a single {@link Listener#onAlarmsAdded}
+     * event, so a bulk import refreshes the alarm window once per batch.
+     */
+    public synchronized void addAlarms(List<Alarm> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int inserted = 0;
+        try {
+            for (Alarm alarm : batch) {
+                insert(alarm);
+                inserted++;
+            }
+        } finally {
+            // Keep the list in step with the table even if a row was rejected part way.
+            if (inserted > 0) {
+                int index = alarms.size();
+                List<Alarm> added = List.copyOf(batch.subList(0, inserted));
+                alarms.addAll(added);
+                for (Listener listener : listeners) {
+                    listener.onAlarmsAdded(index, added);
+                }
+            }
+        }
+    }
+
+    private void insert(Alarm alarm) {
+        int row = table.add(alarm.getSecondOfDay(), alarm.getAlarmTune(), alarm.getSnoozeTime(), alarm.getNoOfSnoozes(),
+                alarm.getRecurrence());
+        alarm.cancelSnooze();
+        table.setSnoozeState(row, alarm.snoozedCount, 0);
+        table.setView(row, alarm);
+        table.setListed(row, true);
+        alarm.row = row;
+        queueOccurrence(row);
+        journal(AlarmStore.ADD, row);
+    }
+
+    /**
+     * Adds an alarm straight to the table without creating an {@link Alarm} for it or
+     * listing it in {@link #getAlarms()}; for bulk and headless use. Returns its row.
+     */
+    public synchronized int addAlarm(int secondOfDay, String tune, int snoozeTime, int noOfSnoozes) {
+        int row = table.add(secondOfDay, tune, snoozeTime, noOfSnoozes);
+        journal(AlarmStore.ADD, row);
+        return row;
+    }
+
+    /**
+     * Edits an alarm and writes it back to its row, both under the engine lock so the tick
+     * thread never sees it half changed. Editing drops a pending snooze.
+     */
+    public synchronized void updateAlarm(Alarm alarm, int secondOfDay, String tune, int snoozeTime, int noOfSnoozes,
+            Recurrence recurrence) {
+        alarm.setSecondOfDay(secondOfDay);
+        alarm.setAlarmTune(tune);
+        alarm.setSnoozeTime(snoozeTime);
+        alarm.setNoOfSnoozes(noOfSnoozes);
+        alarm.setRecurrence(recurrence);
+        if (isRegistered(alarm)) {
+            writeRow(alarm);
+            journal(AlarmStore.EDIT, alarm.row);
+            fireAlarmUpdated(alarm);
+        }
+    }
+
+    /**
+     * Removes an alarm, silencing it first if it is ringing.
+     */
+    public synchronized void removeAlarm(Alarm alarm) {
+        alarm.stopAlarmTune();
+        alarm.cancelSnooze();
+        if (isRegistered(alarm)) {
+            occurrences.remove(alarm.row);
+            table.remove(alarm.row);
+            if (store != null) {
+                store.recordRemove(alarm.row);
+            }
+            alarm.row = AlarmTable.NONE;
+        }
+        int index = alarms.indexOf(alarm);
+        if (index >= 0) {
+            alarms.remove(index);
+            for (Listener listener : listeners) {
+                listener.onAlarmRemoved(index, alarm);
+            }
+        }
+    }
+
+    /**
+     * Hands every alarm in the table, listed or not, to {@code sink} as detached copies,
+     * {@code batchSize} at a time. The lock is only held while a batch is copied, never
+     * while the sink runs, so an export cannot stall the tick.
+     */
+    public void forEachAlarm(int batchSize, Consumer<List<Alarm>> sink) {
+        List<Alarm> batch = new ArrayList<>(batchSize);
+        int row = 0;
+        while (true) {
+            synchronized (this) {
+                for (; row < table.getRowCount() && batch.size() < batchSize; row++) {
+                    if (table.isLive(row)) {
+                        Alarm copy = new Alarm(table.getSecondOfDay(row), table.getTune(row),
+                                table.getSnoozeMinutes(row), table.getMaxSnoozes(row));
+                        copy.setRecurrence(table.getRecurrence(row));
+                        batch.add(copy);
+                    }
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            sink.accept(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * The listed alarm in table row {@code row}, or null. A row number identifies an alarm
+     * for as long as it exists; once removed, the row may be reused by a later alarm.
+     */
+    public synchronized Alarm findAlarm(int row) {
+        return table.isLive(row) && table.isListed(row) ? viewOf(row) : null;
+    }
+
+    public synchronized List<Alarm> getAlarms() {
+        return new ArrayList<>(alarms);
+    }
+
+    /**
+     * Number of alarms in the table, including those added without an {@link Alarm}.
+     */
+    public synchronized int getAlarmCount() {
+        return table.size();
+    }
+
+    /**
+     * Silences a ringing alarm. A one-off alarm is removed; a repeating one stays for its
+     * next occurrence.
+     */
+    public synchronized void stopAlarm(Alarm alarm) {
+        alarm.stopAlarmTune();
+        events.publish(EventBus.ALARM_STOPPED, isRegistered(alarm) ? alarm.row : AlarmTable.NONE,
+                alarm.getSecondOfDay(), 0);
+        if (alarm.getRecurrence().getKind() == Recurrence.Kind.ONCE) {
+            removeAlarm(alarm);
+            return;
+        }
+        // This occurrence is over: drop any pending snooze, and the next one starts with
+        // every snooze available again.
+        alarm.setSnoozeState(0, false);
+        if (isRegistered(alarm)) {
+            boolean wasSnoozing = table.isSnoozing(alarm.row);
+            table.setSnoozeState(alarm.row, 0, 0);
+            if (wasSnoozing) {
+                queueOccurrence(alarm.row);
+            }
+            journal(AlarmStore.SNOOZE, alarm.row);
+        }
+        fireAlarmUpdated(alarm);
+        releaseView(alarm);
+    }
+
+    /**
+     * Silences a ringing alarm and rings it again after its snooze time. The snooze is a
+     * deadline of its own: the alarm's time and recurrence are unchanged.
+     */
+    public synchronized void snoozeAlarm(Alarm alarm) {
+        alarm.snooze();
+        alarm.stopAlarmTune();
+        if (isRegistered(alarm) && alarm.isSnoozing()) {
+            long snoozeUntil = lastSecond + alarm.getSnoozeTime() * 60L;
+            table.setSnoozeState(alarm.row, alarm.snoozedCount, snoozeUntil);
+            // A recurring alarm's pending occurrence gives way to the snooze and is
+            // rescheduled when the snooze rings.
+            occurrences.schedule(alarm.row, snoozeUntil);
+            journal(AlarmStore.SNOOZE, alarm.row);
+        }
+        events.publish(EventBus.ALARM_SNOOZED, isRegistered(alarm) ? alarm.row : AlarmTable.NONE,
+                alarm.getSecondOfDay(), 0);
+        fireAlarmUpdated(alarm);
+        releaseView(alarm);
+    }
+
+    private boolean isRegistered(Alarm alarm) {
+        return table.isLive(alarm.row) && table.getView(alarm.row) == alarm;
+    }
+
+    /**
+     * Drops the view an unlisted row was given for ringing, once it has been stopped or
+     * snoozed. The row keeps its snooze state; a snooze that ends builds a new view.
+     */
+    private void releaseView(Alarm alarm) {
+        if (isRegistered(alarm) && !table.isListed(alarm.row)) {
+            table.removeView(alarm.row);
+            alarm.row = AlarmTable.NONE;
+        }
+    }
+
+    private void writeRow(Alarm alarm) {
+        table.set(alarm.row, alarm.getSecondOfDay(), alarm.getAlarmTune(), alarm.getSnoozeTime(), alarm.getNoOfSnoozes(),
+                alarm.getRecurrence());
+        alarm.cancelSnooze();
+        table.setSnoozeState(alarm.row, alarm.snoozedCount, 0);
+        queueOccurrence(alarm.row);
+    }
+
+    private void queueOccurrence(int row) {
+        if (table.getRecurrence(row).isTimeOfDay()) {
+            occurrences.remove(row);
+        } else {
+            occurrences.schedule(row, nextOccurrence(row, lastSecond));
+        }
+    }
+
+    /**
+     * The {@link Alarm} for {@code row}, built from its columns the first time. Listed rows
+     * keep theirs; an unlisted row's is held only while it rings, see {@link #releaseView}.
+     */
+    private Alarm viewOf(int row) {
+        Alarm alarm = table.getView(row);
+        if (alarm == null) {
+            alarm = new Alarm(table.getSecondOfDay(row), table.getTune(row), table.getSnoozeMinutes(row),
+                    table.getMaxSnoozes(row));
+            alarm.setRecurrence(table.getRecurrence(row));
+            alarm.setSnoozeState(table.getSnoozedCount(row), table.isSnoozing(row));
+            alarm.row = row;
+            table.setView(row, alarm);
+        }
+        return alarm;
+    }
+
+    private void ring(Alarm alarm) {
+        alarm.playAlarmTune();
+        for (Listener listener : listeners) {
+            listener.onAlarmFired(alarm);
+        }
+    }
+
+    private void fireAlarmUpdated(Alarm alarm) {
+        int index = alarms.indexOf(alarm);
+        if (index < 0) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.onAlarmUpdated(index, alarm);
+        }
+    }
+
+    // Countdowns
+
+    /**
+     * Starts a countdown of {@code seconds}. {@code onComplete} runs on the engine thread.
+     */
+    public Countdown startCountdown(int seconds, Runnable onComplete) {
+        return startCountdown("Timer", TimeUnit.SECONDS.toMillis(seconds), onComplete);
+    }
+
+    public synchronized Countdown startCountdown(String name, long durationMillis, Runnable onComplete) {
+        Countdown countdown = createCountdown(name, durationMillis, onComplete);
+        resumeCountdown(countdown);
+        return countdown;
+    }
+
+    /**
+     * Adds a paused countdown. {@code onComplete} runs on the engine thread when it reaches zero.
+     */
+    public synchronized Countdown createCountdown(String name, long durationMillis, Runnable onComplete) {
+        Countdown countdown = new Countdown(name, TimeUnit.MILLISECONDS.toNanos(durationMillis), onComplete);
+        countdowns.add(countdown);
+        return countdown;
+    }
+
+    /**
+     * Pauses a running countdown. One already at its deadline is left running: its
+     * completion is due or waiting for this lock, and pausing it now would leave it stuck
+     * at zero without ever completing.
+     */
+    public synchronized void pauseCountdown(Countdown countdown) {
+        if (countdown.isRunning() && countdown.getRemainingNanos(System.nanoTime()) > 0) {
+            halt(countdown);
+        }
+    }
+
+    private void halt(Countdown countdown) {
+        if (countdown.isRunning()) {
+            countdown.pause(System.nanoTime());
+            countdown.completion.cancel(false);
+        }
+    }
+
+    public synchronized void resumeCountdown(Countdown countdown) {
+        long now = System.nanoTime();
+        if (!countdown.isRunning() && countdown.getRemainingNanos(now) > 0 && countdowns.contains(countdown)) {
+            countdown.start(now);
+            scheduleCompletion(countdown, now);
+        }
+    }
+
+    /**
+     * Stops the countdown and winds it back to its full duration.
+     */
+    public synchronized void resetCountdown(Countdown countdown) {
+        halt(countdown);
+        countdown.reset();
+    }
+
+    public synchronized void cancelCountdown(Countdown countdown) {
+        if (countdown != null) {
+            halt(countdown);
+            countdowns.remove(countdown);
+        }
+    }
+
+    public synchronized List<Countdown> getCountdowns() {
+        return new ArrayList<>(countdowns);
+    }
+
+    public synchronized Countdown findCountdown(int id) {
+        for (Countdown countdown : countdowns) {
+            if (countdown.getId() == id) {
+                return countdown;
+            }
+        }
+        return null;
+    }
+
+    public synchronized boolean isCountdownRunning(Countdown countdown) {
+        return countdown.isRunning();
+    }
+
+    public synchronized long getRemainingMillis(Countdown countdown) {
+        return TimeUnit.NANOSECONDS.toMillis(countdown.getRemainingNanos(System.nanoTime()));
+    }
+
+    /**
+     * Whole seconds left, rounded up so a countdown shows 00:01 until it actually ends.
+     */
+    public synchronized int getRemainingSeconds(Countdown countdown) {
+        long nanos = countdown.getRemainingNanos(System.nanoTime());
+        return (int) ((nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void scheduleCompletion(Countdown countdown, long now) {
+        countdown.completion = executor.schedule(() -> completeCountdown(countdown),
+                countdown.getRemainingNanos(now), TimeUnit.NANOSECONDS);
+    }
+
+    private void completeCountdown(Countdown countdown) {
+        synchronized (this) {
+            if (!countdown.isRunning()) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (countdown.getRemainingNanos(now) > 0) {
+                // The scheduler woke early; wait out the rest.
+                scheduleCompletion(countdown, now);
+                return;
+            }
+            countdown.finish();
+            events.publish(EventBus.TIMER_COMPLETE, countdown.getId(), 0,
+                    TimeUnit.NANOSECONDS.toMillis(countdown.getDurationNanos()));
+        }
+        AudioService.shared().play(AudioService.DEFAULT_TUNE, false);
+        countdown.getOnComplete().run();
+    }
+
+    // Stopwatches
+
+    public synchronized Stopwatch createStopwatch() {
+        Stopwatch stopwatch = new Stopwatch();
+        stopwatches.add(stopwatch);
+        return stopwatch;
+    }
+
+    /**
+     * Records a lap on {@code stopwatch} and publishes it. Returns the lap's total.
+     */
+    public synchronized long recordLap(Stopwatch stopwatch) {
+        long total = stopwatch.lap();
+        int count = stopwatch.getLapCount();
+        events.publish(EventBus.LAP, stopwatch.getId(), count, stopwatch.getLapTime(count - 1));
+        return total;
+    }
+
+    public synchronized void removeStopwatch(Stopwatch stopwatch) {
+        stopwatches.remove(stopwatch);
+    }
+
+    /**
+     * Runs the engine without a display, e.g. {@code java -Djava.awt.headless=true -Xmx16m
+     * ClockEngine 07:30:00 12:00:00}. Each argument is an alarm time in HH:mm:ss.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ClockEngine engine = new ClockEngine();
+        engine.addListener(new Listener() {
+            @Override
+            public void onAlarmFired(Alarm alarm) {
+                System.out.println("Alarm ringing: " + alarm.getAlarmTime());
+            }
+        });
+        for (String time : args) {
+            engine.addAlarm(new Alarm(time, AudioService.DEFAULT_TUNE, Alarm.DEFAULT_SNOOZE_MINUTES,
+                    Alarm.DEFAULT_SNOOZES));
+        }
+        new Thread(AudioService.shared()::prewarm, "audio-prewarm").start();
+        Runtime.getRuntime().addShutdownHook(new Thread(engine::stop));
+        engine.start();
+        ControlServer.startDefault(engine);
+        System.out.println("Clock engine running with " + args.length + " alarm(s)");
+        engine.awaitStop();
+    }
+}
@@ -0,0 +1,85 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Latency histograms for every tick source, alarm rings and EDT dispatch, published on the
+ * platform MBeanServer as {@code clock2:type=Latency,name=...} (view them with JConsole or
+ * VisualVM). Samples are recorded whether or not {@link #register()} has run.
+ * <p>
+ * Second-based sources count a sample over one second as a missed second; UI timers and
+ * EDT events use the {@code clock.metrics.stallMillis} threshold (100 ms by default).
+ */
+final class ClockMetrics {
+    private static final long SECOND_MICROS = 1_000_000;
+    private static final long STALL_MICROS = Long.getLong("clock.metrics.stallMillis", 100) * 1000;
+
+    /** Engine tick: scheduled second boundary to the tick actually running. */
+    static final LatencyHistogram ENGINE_TICK = new LatencyHistogram("engine.tick", SECOND_MICROS);
+    /** Main display: second boundary to {@code ClockApp.updateTime()} running on the EDT. */
+    static final LatencyHistogram CLOCK_UPDATE = new LatencyHistogram("ui.clock", SECOND_MICROS);
+    /** Stopwatch window timer: expected to actual fire time. */
+    static final LatencyHistogram STOPWATCH_TICK = new LatencyHistogram("ui.stopwatch", STALL_MICROS);
+    /** Timer window refresh timer: expected to actual fire time. */
+    static final LatencyHistogram TIMER_TICK = new LatencyHistogram("ui.timer", STALL_MICROS);
+    /** Alarm due second to the alarm ringing on the engine thread. */
+    static final LatencyHistogram ALARM_RING = new LatencyHistogram("alarm.ring", SECOND_MICROS);
+    /** Time each AWT event spends in dispatch on the EDT. */
+    static final LatencyHistogram EDT_DISPATCH = new LatencyHistogram("edt.dispatch", STALL_MICROS);
+
+    private static final LatencyHistogram[] ALL = {
+            ENGINE_TICK, CLOCK_UPDATE, STOPWATCH_TICK, TIMER_TICK, ALARM_RING, EDT_DISPATCH
+    };
+    private static boolean registered;
+
+    private ClockMetrics() {
+    }
+
+    /**
+     * Publishes the histograms as MXBeans. Safe to call more than once.
+     */
+    static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (LatencyHistogram histogram : ALL) {
+            try {
+                ObjectName name = new ObjectName("clock2:type=Latency,name=" + histogram.getName());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(histogram, name);
+                }
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Measures how late a periodic timer fires compared with its previous fire plus its
+     * delay. Call {@link #restart()} when the timer starts and {@link #fired(int)} from its
+     * action; used on one thread (the EDT).
+     */
+    static final class PeriodProbe {
+        private final LatencyHistogram histogram;
+        private long lastNanos;
+
+        PeriodProbe(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        void restart() {
+            lastNanos = 0;
+        }
+
+        void fired(int delayMillis) {
+            long now = System.nanoTime();
+            if (lastNanos != 0) {
+                histogram.record(now - lastNanos - delayMillis * 1_000_000L);
+            }
+            lastNanos = now;
+        }
+    }
+}
@@ -0,0 +1,614 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A loopback HTTP/JSON API over the {@link ClockEngine}, so scripts on the same machine can
+ * manage alarms and timers without the windows. It only listens when
+ * {@code -Dclock.controlPort} is set:
+ * <pre>
+ * GET    /alarms                    list alarms
+ * POST   /alarms                    {"time":"07:30","tune":..,"snoozeMinutes":5,"snoozes":3,"repeat":"weekdays"}
+ * GET    /alarms/{id}
+ * DELETE /alarms/{id}               cancel
+ * POST   /alarms/{id}/snooze
+ * POST   /alarms/{id}/stop
+ * GET    /timers                    list timers
+ * POST   /timers                    {"name":"Tea","seconds":180,"start":true}
+ * GET    /timers/{id}
+ * DELETE /timers/{id}               cancel
+ * POST   /timers/{id}/pause, /resume, /reset
+ * GET    /events?after={sequence}   events newer than {sequence} still in the {@link EventBus}
+ * </pre>
+ * Alarm ids are engine row numbers and timers are removed once they finish. Requests go
+ * through the same engine methods as the windows, whose listeners hop onto the EDT, so a
+ * request only ever holds the engine lock for one short call. Handlers run on a small
+ * bounded pool; when it and its queue are full, a request is answered 503 at once rather
+ * than queued without limit or run on the accepting thread.
+ */
+class ControlServer {
+    private static final int QUEUE_CAPACITY = 512;
+
+    private final ClockEngine engine;
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * Thrown by a handler to answer with {@code status} and a JSON error message.
+     */
+    private static final class ApiException extends RuntimeException {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    ControlServer(ClockEngine engine, int port) throws IOException {
+        this.engine = engine;
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            // Otherwise small responses wait out delayed ACKs, about 40 ms per request.
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger count = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "control-http-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, rejectBusy());
+        workers.allowCoreThreadTimeOut(true);
+        // The accepting thread only reads the request line and headers, then hands the
+        // exchange to the pool.
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 128);
+        server.createContext("/alarms", exchange -> workers.execute(new Request(exchange, this::alarms)));
+        server.createContext("/timers", exchange -> workers.execute(new Request(exchange, this::timers)));
+        server.createContext("/events", exchange -> workers.execute(new Request(exchange, this::events)));
+    }
+
+    /**
+     * Starts the API on {@code -Dclock.controlPort}, e.g. 8765. It is off unless that is set.
+     * Returns null when it is off, or, after saying why, when it cannot bind.
+     */
+    static ControlServer startDefault(ClockEngine engine) {
+        String port = System.getProperty("clock.controlPort");
+        if (port == null) {
+            return null;
+        }
+        try {
+            ControlServer controlServer = new ControlServer(engine, Integer.parseInt(port));
+            controlServer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(controlServer::stop, "control-shutdown"));
+            return controlServer;
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Control API not started on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        workers.shutdown();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange, String[] path) throws IOException;
+    }
+
+    private final class Request implements Runnable {
+        final HttpExchange exchange;
+        final Handler handler;
+
+        Request(HttpExchange exchange, Handler handler) {
+            this.exchange = exchange;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            try {
+                handle(exchange, handler);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static RejectedExecutionHandler rejectBusy() {
+        return (task, pool) -> {
+            HttpExchange exchange = ((Request) task).exchange;
+            try (exchange) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "busy");
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        };
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            try {
+                checkLocalRequest(exchange);
+                String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+                if (!path[0].equals(exchange.getHttpContext().getPath().substring(1))) {
+                    throw new ApiException(404, "not found");
+                }
+                handler.handle(exchange, path);
+            } catch (ApiException e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                sendError(exchange, 500, e.toString());
+            }
+        }
+    }
+
+    /**
+     * The socket is loopback only, but a web page can still reach it through the browser;
+     * turning away foreign Host names and any cross-origin request keeps pages out.
+     */
+    private static void checkLocalRequest(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host != null) {
+            String name = host.startsWith("[") ? host.substring(0, host.indexOf(']') + 1)
+                    : host.replaceFirst(":\\d+$", "");
+            if (!name.equals("localhost") && !name.equals("127.0.0.1") && !name.equals("[::1]")) {
+                throw new ApiException(403, "host not allowed");
+            }
+        }
+        if (exchange.getRequestHeaders().containsKey("Origin")) {
+            throw new ApiException(403, "cross-origin requests are not allowed");
+        }
+    }
+
+    // Alarms
+
+    private void alarms(HttpExchange exchange, String[] path) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                List<Alarm> alarms = engine.getAlarms();
+                sendList(exchange, alarms.size(), (out, i) -> writeAlarm(out, alarms.get(i)));
+            } else if (method.equals("POST")) {
+                Alarm alarm = parseAlarm(readObject(exchange));
+                engine.addAlarm(alarm);
+                sendAlarm(exchange, 201, alarm);
+            } else {
+                throw notAllowed();
+            }
+            return;
+        }
+        Alarm alarm = engine.findAlarm(parseId(path[1]));
+        if (alarm == null) {
+            throw new ApiException(404, "no alarm " + path[1]);
+        }
+        String action = path.length > 2 ? path[2] : "";
+        if (path.length > 3) {
+            throw new ApiException(404, "not found");
+        } else if (action.isEmpty() && method.equals("GET")) {
+            sendAlarm(exchange, 200, alarm);
+        } else if (action.isEmpty() && method.equals("DELETE")) {
+            engine.removeAlarm(alarm);
+            send(exchange, 204, null);
+        } else if (action.equals("snooze") && method.equals("POST")) {
+            engine.snoozeAlarm(alarm);
+            sendAlarm(exchange, 200, alarm);
+        } else if (action.equals("stop") && method.equals("POST")) {
+            engine.stopAlarm(alarm);
+            sendAlarm(exchange, 200, alarm);
+        } else if (action.isEmpty() || action.equals("snooze") || action.equals("stop")) {
+            throw notAllowed();
+        } else {
+            throw new ApiException(404, "not found");
+        }
+    }
+
+    private static Alarm parseAlarm(Map<String, String> fields) {
+        String time = fields.get("time");
+        if (time == null) {
+            throw new IllegalArgumentException("time is required");
+        }
+        Alarm alarm = new Alarm(AlarmTransfer.parseTime(time), fields.getOrDefault("tune", AudioService.DEFAULT_TUNE),
+                intField(fields, "snoozeMinutes", Alarm.DEFAULT_SNOOZE_MINUTES),
+                intField(fields, "snoozes", Alarm.DEFAULT_SNOOZES));
+        if (fields.containsKey("repeat")) {
+            alarm.setRecurrence(AlarmTransfer.parseRepeat(fields.get("repeat")));
+        }
+        return alarm;
+    }
+
+    private void sendAlarm(HttpExchange exchange, int status, Alarm alarm) throws IOException {
+        StringBuilder json = new StringBuilder(160);
+        writeAlarm(json, alarm);
+        send(exchange, status, json.toString());
+    }
+
+    private static void writeAlarm(Appendable out, Alarm alarm) throws IOException {
+        out.append("{\"id\":").append(String.valueOf(alarm.row));
+        out.append(",\"time\":").append(quote(alarm.getAlarmTime()));
+        out.append(",\"tune\":").append(quote(alarm.getAlarmTune()));
+        out.append(",\"snoozeMinutes\":").append(String.valueOf(alarm.getSnoozeTime()));
+        out.append(",\"snoozes\":").append(String.valueOf(alarm.getNoOfSnoozes()));
+        out.append(",\"snoozed\":").append(String.valueOf(alarm.snoozedCount));
+        out.append(",\"repeat\":").append(quote(AlarmTransfer.formatRepeat(alarm.getRecurrence())));
+        out.append(",\"snoozing\":").append(String.valueOf(alarm.isSnoozing()));
+        out.append(",\"ringing\":").append(String.valueOf(alarm.getPlayback() != null)).append('}');
+    }
+
+    // Timers
+
+    private void timers(HttpExchange exchange, String[] path) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                List<Countdown> countdowns = engine.getCountdowns();
+                sendList(exchange, countdowns.size(), (out, i) -> writeTimer(out, countdowns.get(i)));
+            } else if (method.equals("POST")) {
+                sendTimer(exchange, 201, createTimer(readObject(exchange)));
+            } else {
+                throw notAllowed();
+            }
+            return;
+        }
+        Countdown countdown = engine.findCountdown(parseId(path[1]));
+        if (countdown == null) {
+            throw new ApiException(404, "no timer " + path[1]);
+        }
+        String action = path.length > 2 ? path[2] : "";
+        if (path.length > 3) {
+            throw new ApiException(404, "not found");
+        } else if (action.isEmpty() && method.equals("GET")) {
+            sendTimer(exchange, 200, countdown);
+        } else if (action.isEmpty() && method.equals("DELETE")) {
+            engine.cancelCountdown(countdown);
+            send(exchange, 204, null);
+        } else if (!action.isEmpty() && !method.equals("POST")) {
+            throw notAllowed();
+        } else if (action.equals("pause")) {
+            engine.pauseCountdown(countdown);
+            sendTimer(exchange, 200, countdown);
+        } else if (action.equals("resume")) {
+            engine.resumeCountdown(countdown);
+            sendTimer(exchange, 200, countdown);
+        } else if (action.equals("reset")) {
+            engine.resetCountdown(countdown);
+            sendTimer(exchange, 200, countdown);
+        } else if (action.isEmpty()) {
+            throw notAllowed();
+        } else {
+            throw new ApiException(404, "not found");
+        }
+    }
+
+    private Countdown createTimer(Map<String, String> fields) {
+        long millis;
+        if (fields.containsKey("millis")) {
+            millis = Long.parseLong(fields.get("millis"));
+        } else if (fields.containsKey("seconds")) {
+            millis = TimeUnit.SECONDS.toMillis(Long.parseLong(fields.get("seconds")));
+        } else {
+            throw new IllegalArgumentException("seconds or millis is required");
+        }
+        if (millis <= 0) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        String name = fields.getOrDefault("name", "Timer");
+        // Completion is already published as EventBus.TIMER_COMPLETE; all that is left is
+        // to drop the finished timer.
+        Countdown[] created = new Countdown[1];
+        Countdown countdown = engine.createCountdown(name, millis, () -> engine.cancelCountdown(created[0]));
+        created[0] = countdown;
+        if (!"false".equals(fields.get("start"))) {
+            engine.resumeCountdown(countdown);
+        }
+        return countdown;
+    }
+
+    private void sendTimer(HttpExchange exchange, int status, Countdown countdown) throws IOException {
+        StringBuilder json = new StringBuilder(120);
+        writeTimer(json, countdown);
+        send(exchange, status, json.toString());
+    }
+
+    private void writeTimer(Appendable out, Countdown countdown) throws IOException {
+        out.append("{\"id\":").append(String.valueOf(countdown.getId()));
+        out.append(",\"name\":").append(quote(countdown.getName()));
+        out.append(",\"durationMillis\":").append(String.valueOf(TimeUnit.NANOSECONDS.toMillis(countdown.getDurationNanos())));
+        out.append(",\"remainingMillis\":").append(String.valueOf(engine.getRemainingMillis(countdown)));
+        out.append(",\"running\":").append(String.valueOf(engine.isCountdownRunning(countdown))).append('}');
+    }
+
+    // Events
+
+    /**
+     * Reads straight from the ring, so a client polls at its own pace. One that waits too
+     * long gets the oldest events still held and a {@code missed} count for the rest.
+     */
+    private void events(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length > 1) {
+            throw new ApiException(404, "not found");
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            throw notAllowed();
+        }
+        EventBus bus = engine.getEvents();
+        String after = queryParameter(exchange, "after");
+        long cursor = bus.getCursor();
+        long oldest = Math.max(0, cursor - bus.getCapacity() + 1);
+        long first = after == null ? oldest : Long.parseLong(after) + 1;
+        long missed = Math.max(0, oldest - first);
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"cursor\":").append(cursor).append(",\"events\":[");
+        EventBus.Event event = new EventBus.Event();
+        boolean empty = true;
+        for (long sequence = Math.max(first, oldest); sequence <= cursor; sequence++) {
+            if (!bus.read(sequence, event)) {
+                missed++;
+                continue;
+            }
+            json.append(empty ? "" : ",").append("{\"sequence\":").append(sequence);
+            json.append(",\"type\":").append(quote(EventBus.Event.typeName(event.type)));
+            json.append(",\"id\":").append(event.id);
+            json.append(",\"value\":").append(event.value);
+            json.append(",\"amount\":").append(event.amount);
+            json.append(",\"epochMillis\":").append(event.epochMillis).append('}');
+            empty = false;
+        }
+        json.append("],\"missed\":").append(missed).append('}');
+        send(exchange, 200, json.toString());
+    }
+
+    // HTTP and JSON
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return pair.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    private interface ElementWriter {
+        void write(Writer out, int index) throws IOException;
+    }
+
+    /**
+     * Streams a JSON array of {@code size} elements with chunked encoding, so a long alarm
+     * list is never built up as one string.
+     */
+    private static void sendList(HttpExchange exchange, int size, ElementWriter elements) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+        out.write('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            elements.write(out, i);
+        }
+        out.write("]\n");
+        out.flush();
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = (json + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "{\"error\":" + quote(String.valueOf(message)) + "}");
+    }
+
+    private static ApiException notAllowed() {
+        return new ApiException(405, "method not allowed");
+    }
+
+    private static int parseId(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "bad id '" + text + "'");
+        }
+    }
+
+    private static int intField(Map<String, String> fields, String name, int fallback) {
+        String value = fields.get(name);
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+
+    /**
+     * Reads a request body holding one flat JSON object. Strings, numbers and booleans are
+     * returned as their text; null members are left out.
+     */
+    private static Map<String, String> readObject(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readNBytes(64 * 1024), StandardCharsets.UTF_8);
+        }
+        Map<String, String> fields = new HashMap<>();
+        JsonReader reader = new JsonReader(body);
+        reader.skipSpace();
+        if (reader.atEnd()) {
+            return fields;
+        }
+        reader.expect('{');
+        reader.skipSpace();
+        if (!reader.tryRead('}')) {
+            do {
+                reader.skipSpace();
+                String name = reader.readString();
+                reader.skipSpace();
+                reader.expect(':');
+                reader.skipSpace();
+                String value = reader.readValue();
+                if (value != null) {
+                    fields.put(name, value);
+                }
+                reader.skipSpace();
+            } while (reader.tryRead(','));
+            reader.expect('}');
+        }
+        reader.skipSpace();
+        if (!reader.atEnd()) {
+            throw new IllegalArgumentException("unexpected content after the JSON object");
+        }
+        return fields;
+    }
+
+    private static final class JsonReader {
+        private final String text;
+        private int position;
+
+        JsonReader(String text) {
+            this.text = text;
+        }
+
+        boolean atEnd() {
+            return position >= text.length();
+        }
+
+        void skipSpace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean tryRead(char c) {
+            if (!atEnd() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!tryRead(c)) {
+                throw new IllegalArgumentException("expected '" + c + "' at offset " + position);
+            }
+        }
+
+        String readValue() {
+            if (!atEnd() && text.charAt(position) == '"') {
+                return readString();
+            }
+            int start = position;
+            while (!atEnd() && "-+.eE0123456789truefalsn".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.isEmpty() || !(literal.equals("true") || literal.equals("false")
+                    || Character.isDigit(literal.charAt(literal.length() - 1)))) {
+                throw new IllegalArgumentException("expected a string, number or boolean at offset " + start);
+            }
+            return literal;
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (atEnd()) {
+                    throw new IllegalArgumentException("unterminated string");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (atEnd()) {
+                    throw new IllegalArgumentException("unterminated string");
+                }
+                char escape = text.charAt(position++);
+                switch (escape) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("bad \\u escape");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escape);
+                }
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
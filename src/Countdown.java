@@ -0,0 +1,71 @@
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A named countdown. While running it is an absolute {@link System#nanoTime()} deadline;
+ * while paused it holds the exact nanoseconds that were left, so pausing and resuming never
+ * rounds or loses time. State is guarded by the owning {@link ClockEngine}.
+ */
+class Countdown {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+    private final int id = NEXT_ID.getAndIncrement();
+    private final String name;
+    private final long durationNanos;
+    private final Runnable onComplete;
+    private long remainingNanos;
+    private long deadlineNanos;
+    private boolean running;
+    ScheduledFuture<?> completion;
+
+    Countdown(String name, long durationNanos, Runnable onComplete) {
+        this.name = name;
+        this.durationNanos = durationNanos;
+        this.remainingNanos = durationNanos;
+        this.onComplete = onComplete;
+    }
+
+    /** Unique for the life of the process. */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    Runnable getOnComplete() {
+        return onComplete;
+    }
+
+    long getRemainingNanos(long now) {
+        return running ? Math.max(0, deadlineNanos - now) : remainingNanos;
+    }
+
+    void start(long now) {
+        deadlineNanos = now + remainingNanos;
+        running = true;
+    }
+
+    void pause(long now) {
+        remainingNanos = Math.max(0, deadlineNanos - now);
+        running = false;
+    }
+
+    void reset() {
+        remainingNanos = durationNanos;
+        running = false;
+    }
+
+    void finish() {
+        remainingNanos = 0;
+        running = false;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+}
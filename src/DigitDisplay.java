@@ -0,0 +1,130 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Shows a {@link Clock}'s time by blitting cells from a {@link GlyphAtlas}. A refresh
+ * compares the new characters with the ones on screen and repaints only the cells that
+ * changed, which is usually just the last digit, so no text is laid out once per second.
+ */
+class DigitDisplay extends JComponent {
+    private static final int MAX_CHARS = 16;
+    private final Clock clock;
+    private final char[] shown = new char[MAX_CHARS];
+    private final char[] next = new char[MAX_CHARS];
+    private final int[] cellX = new int[MAX_CHARS];
+    private int length;
+    private int textWidth;
+    private GlyphAtlas atlas;
+    private double atlasScale = 1;
+
+    DigitDisplay(Clock clock) {
+        this.clock = clock;
+        clock.update(System.currentTimeMillis());
+        length = clock.copyDisplayChars(shown);
+        setFont(new Font("Monospaced", Font.BOLD, 72));
+        setForeground(Color.WHITE);
+    }
+
+    /**
+     * Brings the display up to the clock's current time, repainting only changed cells.
+     */
+    void refresh() {
+        clock.update(System.currentTimeMillis());
+        int nextLength = clock.copyDisplayChars(next);
+        if (nextLength != length) {
+            System.arraycopy(next, 0, shown, 0, nextLength);
+            length = nextLength;
+            layoutCells();
+            revalidate();
+            repaint();
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (next[i] != shown[i]) {
+                shown[i] = next[i];
+                repaintCell(i);
+            }
+        }
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        atlas = null;
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public void setForeground(Color color) {
+        super.setForeground(color);
+        atlas = null;
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        GlyphAtlas glyphs = atlas(atlasScale);
+        Insets insets = getInsets();
+        return new Dimension(textWidth + insets.left + insets.right, glyphs.getHeight() + insets.top + insets.bottom);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        double scale = ((Graphics2D) g).getTransform().getScaleX();
+        GlyphAtlas glyphs = atlas(scale);
+        Rectangle clip = g.getClipBounds();
+        int originX = originX();
+        int originY = originY(glyphs);
+        for (int i = 0; i < length; i++) {
+            int x = originX + cellX[i];
+            int width = glyphs.widthOf(shown[i]);
+            if (clip == null || clip.intersects(x, originY, width, glyphs.getHeight())) {
+                glyphs.draw(g, shown[i], x, originY);
+            }
+        }
+    }
+
+    private void repaintCell(int index) {
+        GlyphAtlas glyphs = atlas(atlasScale);
+        repaint(originX() + cellX[index], originY(glyphs), glyphs.widthOf(shown[index]), glyphs.getHeight());
+    }
+
+    private GlyphAtlas atlas(double scale) {
+        if (atlas == null || scale != atlasScale) {
+            atlasScale = scale;
+            atlas = GlyphAtlas.get(getFont(), getForeground(), scale);
+            layoutCells();
+        }
+        return atlas;
+    }
+
+    private void layoutCells() {
+        if (atlas == null) {
+            return;
+        }
+        int x = 0;
+        for (int i = 0; i < length; i++) {
+            cellX[i] = x;
+            x += atlas.widthOf(shown[i]);
+        }
+        textWidth = x;
+    }
+
+    private int originX() {
+        Insets insets = getInsets();
+        return insets.left + (getWidth() - insets.left - insets.right - textWidth) / 2;
+    }
+
+    private int originY(GlyphAtlas glyphs) {
+        Insets insets = getInsets();
+        return insets.top + (getHeight() - insets.top - insets.bottom - glyphs.getHeight()) / 2;
+    }
+}
@@ -0,0 +1,77 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * The DS-Digital face, loaded once on a background thread. It is read from the classpath
+ * ({@code /Fonts/DS-Digital.TTF}, packaged into the jar), falling back to the
+ * {@code Fonts} directory when run from the sources, and to a bold monospaced font if
+ * neither can be read. Windows show the fallback immediately and swap in the real face
+ * through {@link #whenLoaded(Consumer)}, so the EDT never waits on font parsing.
+ */
+final class DigitalFont {
+    static final String RESOURCE = "/Fonts/DS-Digital.TTF";
+    private static final Font FALLBACK = new Font("Monospaced", Font.BOLD, 72);
+    private static final CompletableFuture<Font> LOADED = new CompletableFuture<>();
+    private static boolean loading;
+
+    private DigitalFont() {
+    }
+
+    /**
+     * Starts loading the font if that has not happened yet. Safe to call from any thread.
+     */
+    static synchronized void preload() {
+        if (loading) {
+            return;
+        }
+        loading = true;
+        Thread loader = new Thread(() -> LOADED.complete(load()), "font-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * The font at {@code size}: DS-Digital if it has loaded, otherwise the fallback.
+     */
+    static Font get(float size) {
+        return LOADED.getNow(FALLBACK).deriveFont(size);
+    }
+
+    /**
+     * Runs {@code action} on the EDT with the loaded font (or the fallback if loading
+     * failed), immediately if it is already available.
+     */
+    static void whenLoaded(Consumer<Font> action) {
+        preload();
+        LOADED.thenAccept(font -> SwingUtilities.invokeLater(() -> action.accept(font)));
+    }
+
+    private static Font load() {
+        try (InputStream in = open()) {
+            if (in == null) {
+                System.out.println("DS-Digital font not found, using " + FALLBACK.getFamily());
+                return FALLBACK;
+            }
+            Font font = Font.createFont(Font.TRUETYPE_FONT, in).deriveFont(Font.BOLD, 72f);
+            GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+            return font;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return FALLBACK;
+        }
+    }
+
+    private static InputStream open() throws Exception {
+        InputStream in = DigitalFont.class.getResourceAsStream(RESOURCE);
+        if (in != null) {
+            return in;
+        }
+        File file = new File(RESOURCE.substring(1));
+        return file.isFile() ? new FileInputStream(file) : null;
+    }
+}
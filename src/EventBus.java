@@ -0,0 +1,269 @@
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Alarm, timer and stopwatch events in a preallocated ring. Publishing writes a few
+ * primitives into the next slot and moves the cursor; it never allocates, locks or waits,
+ * so the tick thread can publish while it fires alarms.
+ * <p>
+ * There is one producer at a time: the {@link ClockEngine} publishes only while holding its
+ * own lock. Each slot carries the sequence it holds, written last, so a reader can tell a
+ * complete event from one being overwritten (a seqlock per slot).
+ * <p>
+ * Consumers keep their own position and go at their own pace. The ring never waits for
+ * them: a consumer more than {@link #getCapacity()} events behind loses the oldest ones,
+ * is told how many through {@link Subscriber#onMissed}, and carries on from the oldest event
+ * still held.
+ */
+class EventBus {
+    static final int ALARM_FIRED = 1;
+    static final int ALARM_SNOOZED = 2;
+    static final int ALARM_STOPPED = 3;
+    static final int TIMER_COMPLETE = 4;
+    static final int LAP = 5;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] types;
+    private final int[] ids;
+    private final int[] values;
+    private final long[] amounts;
+    private final long[] times;
+    private volatile long cursor = -1;
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    /**
+     * One event, as copied out of the ring. What {@code id}, {@code value} and
+     * {@code amount} hold depends on the type:
+     * <ul>
+     * <li>alarm events: the alarm's row, its second of the day, and 0;</li>
+     * <li>{@link #TIMER_COMPLETE}: the countdown id, 0, and its duration in milliseconds;</li>
+     * <li>{@link #LAP}: the stopwatch id, the lap number from 1, and the lap time in
+     * milliseconds.</li>
+     * </ul>
+     */
+    static final class Event {
+        long sequence;
+        int type;
+        int id;
+        int value;
+        long amount;
+        long epochMillis;
+
+        static String typeName(int type) {
+            switch (type) {
+                case ALARM_FIRED:
+                    return "alarm-fired";
+                case ALARM_SNOOZED:
+                    return "alarm-snoozed";
+                case ALARM_STOPPED:
+                    return "alarm-stopped";
+                case TIMER_COMPLETE:
+                    return "timer-complete";
+                case LAP:
+                    return "lap";
+                default:
+                    return "unknown";
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "#" + sequence + " " + typeName(type) + " id=" + id + " value=" + value + " amount=" + amount;
+        }
+    }
+
+    interface Subscriber {
+        /** Called on the subscription's thread; {@code event} is reused for the next call. */
+        void onEvent(Event event);
+
+        /** Called when {@code count} events were overwritten before this subscriber read them. */
+        default void onMissed(long count) {
+        }
+    }
+
+    /**
+     * A subscriber with its own daemon thread and position in the ring.
+     */
+    final class Subscription implements Runnable {
+        private final Subscriber subscriber;
+        private final Event event = new Event();
+        private final Thread thread;
+        private volatile boolean parked;
+        private volatile boolean closed;
+        private long next;
+        private volatile long missed;
+
+        private Subscription(String name, Subscriber subscriber) {
+            this.subscriber = subscriber;
+            this.next = cursor + 1;
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * Events this subscriber has lost to overruns so far.
+         */
+        long getMissed() {
+            return missed;
+        }
+
+        void close() {
+            closed = true;
+            LockSupport.unpark(thread);
+            removeSubscription(this);
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                long available = cursor;
+                if (next > available) {
+                    parked = true;
+                    if (cursor < next && !closed) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    parked = false;
+                    continue;
+                }
+                long oldest = available - mask;
+                if (next < oldest) {
+                    // Overwritten before we got to them; go on from what the ring still holds.
+                    long skipped = oldest - next;
+                    next = oldest;
+                    missed += skipped;
+                    deliverMissed(skipped);
+                    continue;
+                }
+                if (!read(next, event)) {
+                    // Being overwritten right now; the cursor moves past it in a moment.
+                    Thread.onSpinWait();
+                    continue;
+                }
+                next++;
+                try {
+                    subscriber.onEvent(event);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void deliverMissed(long count) {
+            try {
+                subscriber.onMissed(count);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @param capacity slots in the ring, rounded up to a power of two
+     */
+    EventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, Long.MIN_VALUE);
+        }
+        types = new int[size];
+        ids = new int[size];
+        values = new int[size];
+        amounts = new long[size];
+        times = new long[size];
+    }
+
+    int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Sequence of the newest event, or -1 before the first.
+     */
+    long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Appends an event. Callers must not publish concurrently; the engine publishes only
+     * under its lock.
+     */
+    void publish(int type, int id, int value, long amount) {
+        long sequence = cursor + 1;
+        int slot = (int) sequence & mask;
+        // Mark the slot as being written before touching its fields, so a reader of the
+        // event it held rejects whatever it reads from here on.
+        sequences.setOpaque(slot, -1);
+        VarHandle.storeStoreFence();
+        types[slot] = type;
+        ids[slot] = id;
+        values[slot] = value;
+        amounts[slot] = amount;
+        times[slot] = System.currentTimeMillis();
+        sequences.setRelease(slot, sequence);
+        cursor = sequence;
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].parked) {
+                LockSupport.unpark(current[i].thread);
+            }
+        }
+    }
+
+    /**
+     * Copies event {@code sequence} into {@code into}. Returns false if the ring no longer
+     * holds it, or does not yet.
+     */
+    boolean read(long sequence, Event into) {
+        int slot = (int) sequence & mask;
+        if (sequences.getAcquire(slot) != sequence) {
+            return false;
+        }
+        into.type = types[slot];
+        into.id = ids[slot];
+        into.value = values[slot];
+        into.amount = amounts[slot];
+        into.epochMillis = times[slot];
+        VarHandle.loadLoadFence();
+        if (sequences.getOpaque(slot) != sequence) {
+            return false;
+        }
+        into.sequence = sequence;
+        return true;
+    }
+
+    /**
+     * Starts delivering events published from now on to {@code subscriber} on a thread
+     * named {@code name}.
+     */
+    Subscription subscribe(String name, Subscriber subscriber) {
+        Subscription subscription = new Subscription(name, subscriber);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = subscription;
+            subscriptions = grown;
+        }
+        subscription.thread.start();
+        return subscription;
+    }
+
+    private synchronized void removeSubscription(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] shrunk = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, shrunk, 0, i);
+                System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                subscriptions = shrunk;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The clock's glyphs (digits, colon, space and the AM/PM letters) rasterized once into a
+ * single translucent image for a given font, color and device scale. Atlases are shared and
+ * kept in a small LRU cache, so changing the text color back and forth does not re-render.
+ */
+final class GlyphAtlas {
+    static final String GLYPHS = "0123456789: APM";
+    private static final int CACHE_SIZE = 8;
+    private static final Map<String, GlyphAtlas> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GlyphAtlas> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final BufferedImage image;
+    private final double scale;
+    private final int[] glyphX = new int[GLYPHS.length()];
+    private final int[] glyphWidth = new int[GLYPHS.length()];
+    private final int digitWidth;
+    private final int height;
+
+    static synchronized GlyphAtlas get(Font font, Color color, double scale) {
+        String key = font.getFontName() + '/' + font.getStyle() + '/' + font.getSize2D() + '/'
+                + color.getRGB() + '/' + scale;
+        GlyphAtlas atlas = CACHE.get(key);
+        if (atlas == null) {
+            atlas = new GlyphAtlas(font, color, scale);
+            CACHE.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    private GlyphAtlas(Font font, Color color, double scale) {
+        this.scale = scale;
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D measure = scratch.createGraphics();
+        FontMetrics metrics = measure.getFontMetrics(font);
+        measure.dispose();
+
+        int widest = 0;
+        for (char c = '0'; c <= '9'; c++) {
+            widest = Math.max(widest, metrics.charWidth(c));
+        }
+        digitWidth = widest;
+        height = metrics.getAscent() + metrics.getDescent();
+
+        // Every digit gets a cell of the same width, as do A and P, so no change of
+        // character ever moves the cells around it.
+        int meridiemWidth = Math.max(metrics.charWidth('A'), metrics.charWidth('P'));
+        int x = 0;
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            char c = GLYPHS.charAt(i);
+            glyphX[i] = x;
+            glyphWidth[i] = Character.isDigit(c) ? digitWidth
+                    : c == 'A' || c == 'P' ? meridiemWidth : metrics.charWidth(c);
+            x += glyphWidth[i];
+        }
+
+        image = new BufferedImage(Math.max(1, (int) Math.ceil(x * scale)), Math.max(1, (int) Math.ceil(height * scale)),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g2d.scale(scale, scale);
+        g2d.setFont(font);
+        g2d.setColor(color);
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            char c = GLYPHS.charAt(i);
+            int offset = (glyphWidth[i] - metrics.charWidth(c)) / 2;
+            g2d.setClip(glyphX[i], 0, glyphWidth[i], height);
+            g2d.drawString(String.valueOf(c), glyphX[i] + offset, metrics.getAscent());
+        }
+        g2d.dispose();
+    }
+
+    /**
+     * Width of the cell that {@code c} occupies; digits share one width.
+     */
+    int widthOf(char c) {
+        int index = GLYPHS.indexOf(c);
+        return index < 0 ? digitWidth : glyphWidth[index];
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Draws {@code c} with its cell's top-left corner at ({@code x}, {@code y}) in user space.
+     */
+    void draw(Graphics g, char c, int x, int y) {
+        int index = GLYPHS.indexOf(c);
+        if (index < 0) {
+            return;
+        }
+        int sx = (int) Math.round(glyphX[index] * scale);
+        int sw = (int) Math.round((glyphX[index] + glyphWidth[index]) * scale) - sx;
+        g.drawImage(image, x, y, x + glyphWidth[index], y + height,
+                sx, 0, sx + sw, (int) Math.round(height * scale), null);
+    }
+}
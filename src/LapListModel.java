@@ -0,0 +1,37 @@
+import javax.swing.*;
+
+/**
+ * List model over a {@link LapStore}, newest lap first. Rows are formatted on demand, so
+ * with a fixed cell size the JList only ever formats the rows in its viewport.
+ */
+class LapListModel extends AbstractListModel<String> {
+    static final String PROTOTYPE_ROW = "Lap 9999999    00:00:00.000    Total: 00:00:00.000";
+    private final LapStore laps;
+
+    LapListModel(LapStore laps) {
+        this.laps = laps;
+    }
+
+    @Override
+    public int getSize() {
+        return laps.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        int lap = laps.size() - 1 - index;
+        return String.format("Lap %d    %s    Total: %s", lap + 1,
+                LapStore.formatTime(laps.getLapTime(lap)),
+                LapStore.formatTime(laps.getTotal(lap)));
+    }
+
+    void lapAdded() {
+        fireIntervalAdded(this, 0, 0);
+    }
+
+    void lapsCleared(int previousSize) {
+        if (previousSize > 0) {
+            fireIntervalRemoved(this, 0, previousSize - 1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Streaming lap analytics: every {@link #add(long)} is O(1). Mean and variance use Welford's
+ * online algorithm; percentiles come from a fixed-size histogram (about 15 KB) laid out by
+ * {@link LogLinearBuckets}, within ~3% of the value they hold however many laps are recorded.
+ */
+class LapStatistics {
+    private final long[] histogram = new long[LogLinearBuckets.COUNT];
+    private long count;
+    private double mean;
+    private double m2;
+    private long best = Long.MAX_VALUE;
+    private long worst = Long.MIN_VALUE;
+
+    public synchronized void add(long lapMillis) {
+        long value = Math.max(0, lapMillis);
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        best = Math.min(best, value);
+        worst = Math.max(worst, value);
+        histogram[LogLinearBuckets.bucketOf(value)]++;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(histogram, 0);
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        best = Long.MAX_VALUE;
+        worst = Long.MIN_VALUE;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getBest() {
+        return count == 0 ? 0 : best;
+    }
+
+    public synchronized long getWorst() {
+        return count == 0 ? 0 : worst;
+    }
+
+    public synchronized double getMean() {
+        return mean;
+    }
+
+    public synchronized double getStandardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(m2 / (count - 1));
+    }
+
+    /**
+     * Returns the lap time at {@code percentile} (0-100), clamped to the best and worst lap.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < LogLinearBuckets.COUNT; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Math.min(worst, Math.max(best, LogLinearBuckets.valueOf(i)));
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Writes the statistics as {@code metric,millis} CSV rows.
+     */
+    public synchronized void writeCsv(Writer out) throws IOException {
+        out.write("metric,millis\n");
+        out.write("laps," + count + "\n");
+        out.write("best," + getBest() + "\n");
+        out.write("worst," + getWorst() + "\n");
+        out.write("mean," + String.format("%.3f", mean) + "\n");
+        out.write("stddev," + String.format("%.3f", getStandardDeviation()) + "\n");
+        out.write("p50," + getPercentile(50) + "\n");
+        out.write("p90," + getPercentile(90) + "\n");
+        out.write("p99," + getPercentile(99) + "\n");
+    }
+}
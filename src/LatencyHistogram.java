@@ -0,0 +1,134 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency recorder for hot paths such as the engine tick and EDT dispatch: a
+ * {@link #record(long)} is a few atomic increments. Buckets use the {@link LogLinearBuckets}
+ * layout shared with {@link LapStatistics}, in microseconds, so percentiles are within ~3%.
+ */
+class LatencyHistogram implements LatencyMXBean {
+    private final String name;
+    private final long thresholdMicros;
+    private final AtomicLongArray histogram = new AtomicLongArray(LogLinearBuckets.COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAdder overThreshold = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    LatencyHistogram(String name, long thresholdMicros) {
+        this.name = name;
+        this.thresholdMicros = thresholdMicros;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Records one sample; negative values (a timer that fired early) count as zero.
+     */
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        histogram.incrementAndGet(LogLinearBuckets.bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        if (micros > thresholdMicros) {
+            overThreshold.increment();
+        }
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : (double) totalMicros.sum() / samples;
+    }
+
+    @Override
+    public long getP50Micros() {
+        return getPercentile(50);
+    }
+
+    @Override
+    public long getP90Micros() {
+        return getPercentile(90);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return getPercentile(99);
+    }
+
+    @Override
+    public long getP999Micros() {
+        return getPercentile(99.9);
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    @Override
+    public long getThresholdMicros() {
+        return thresholdMicros;
+    }
+
+    @Override
+    public long getOverThresholdCount() {
+        return overThreshold.sum();
+    }
+
+    /**
+     * Clears the samples. Records that race with a reset may land on either side of it.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < LogLinearBuckets.COUNT; i++) {
+            histogram.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        overThreshold.reset();
+        maxMicros.set(0);
+    }
+
+    /**
+     * The sample at {@code percentile} (0-100), clamped to the largest one recorded.
+     */
+    long getPercentile(double percentile) {
+        long[] copy = new long[LogLinearBuckets.COUNT];
+        long samples = 0;
+        for (int i = 0; i < LogLinearBuckets.COUNT; i++) {
+            copy[i] = histogram.get(i);
+            samples += copy[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * samples));
+        long seen = 0;
+        for (int i = 0; i < LogLinearBuckets.COUNT; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                return Math.min(maxMicros.get(), LogLinearBuckets.valueOf(i));
+            }
+        }
+        return maxMicros.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d mean=%.0fus p50=%dus p99=%dus max=%dus over=%d",
+                name, getCount(), getMeanMicros(), getP50Micros(), getP99Micros(), getMaxMicros(),
+                getOverThresholdCount());
+    }
+}
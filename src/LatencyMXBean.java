@@ -0,0 +1,25 @@
+/**
+ * Management view of a {@link LatencyHistogram}. Times are in microseconds.
+ */
+public interface LatencyMXBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+
+    long getThresholdMicros();
+
+    /** Samples above {@link #getThresholdMicros()}: missed seconds, stalls. */
+    long getOverThresholdCount();
+
+    void reset();
+}
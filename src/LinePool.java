@@ -0,0 +1,69 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps a few opened {@link SourceDataLine}s per audio format so a ringing alarm can start
+ * writing samples immediately instead of waiting for the mixer to open a new line.
+ */
+class LinePool {
+    private static final int BUFFER_MILLIS = 100;
+    private final int maxIdlePerFormat;
+    private final Map<String, ArrayDeque<SourceDataLine>> idle = new HashMap<>();
+
+    public LinePool(int maxIdlePerFormat) {
+        this.maxIdlePerFormat = maxIdlePerFormat;
+    }
+
+    public SourceDataLine acquire(AudioFormat format) throws LineUnavailableException {
+        synchronized (this) {
+            ArrayDeque<SourceDataLine> lines = idle.get(key(format));
+            if (lines != null && !lines.isEmpty()) {
+                return lines.pop();
+            }
+        }
+        return open(format);
+    }
+
+    public void release(SourceDataLine line) {
+        line.stop();
+        line.flush();
+        synchronized (this) {
+            ArrayDeque<SourceDataLine> lines = idle.computeIfAbsent(key(line.getFormat()), k -> new ArrayDeque<>());
+            if (lines.size() < maxIdlePerFormat) {
+                lines.push(line);
+                return;
+            }
+        }
+        line.close();
+    }
+
+    public void prewarm(AudioFormat format) {
+        synchronized (this) {
+            ArrayDeque<SourceDataLine> lines = idle.get(key(format));
+            if (lines != null && !lines.isEmpty()) {
+                return;
+            }
+        }
+        try {
+            release(open(format));
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.out.println("No audio line available for " + format);
+        }
+    }
+
+    private static SourceDataLine open(AudioFormat format) throws LineUnavailableException {
+        SourceDataLine line = AudioSystem.getSourceDataLine(format);
+        int frames = (int) (format.getFrameRate() * BUFFER_MILLIS / 1000);
+        line.open(format, Math.max(frames, 1) * format.getFrameSize());
+        return line;
+    }
+
+    private static String key(AudioFormat format) {
+        return format.toString();
+    }
+}
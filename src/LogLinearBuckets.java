@@ -0,0 +1,33 @@
+/**
+ * The bucket layout shared by {@link LapStatistics} and {@link LatencyHistogram}: values
+ * below 64 get a bucket each; above that, each power of two is split into 32 equal
+ * sub-buckets, so a bucket is within ~3% of any value it holds, up to {@code Long.MAX_VALUE}.
+ */
+final class LogLinearBuckets {
+    private static final int SUB_BUCKETS = 64;
+    private static final int HALF = SUB_BUCKETS / 2;
+    static final int COUNT = SUB_BUCKETS + 57 * HALF;
+
+    private LogLinearBuckets() {
+    }
+
+    /** The bucket holding {@code value}, which must not be negative. */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) ((value >> shift) - HALF);
+    }
+
+    /** Midpoint of the bucket's range. */
+    static long valueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int k = bucket - SUB_BUCKETS;
+        int shift = k / HALF + 1;
+        long lower = (long) (k % HALF + HALF) << shift;
+        return lower + (1L << shift) / 2;
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of (epoch second, alarm row) holding at most one pending
+ * deadline per row: a recurring alarm's next occurrence, or the end of a snooze.
+ * Scheduling, rescheduling and removing a row are O(log n); the soonest deadline is read
+ * in O(1).
+ */
+final class OccurrenceQueue {
+    private long[] times = new long[16];
+    private int[] rows = new int[16];
+    private int[] positions = new int[0];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int row) {
+        return row < positions.length && positions[row] >= 0;
+    }
+
+    long peekTime() {
+        return times[0];
+    }
+
+    int peekRow() {
+        return rows[0];
+    }
+
+    /**
+     * Sets {@code row}'s deadline, inserting it if it is not queued yet.
+     */
+    void schedule(int row, long epochSecond) {
+        if (contains(row)) {
+            int index = positions[row];
+            long previous = times[index];
+            times[index] = epochSecond;
+            if (epochSecond < previous) {
+                siftUp(index);
+            } else {
+                siftDown(index);
+            }
+            return;
+        }
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        if (row >= positions.length) {
+            int length = Math.max(row + 1, positions.length * 2);
+            int old = positions.length;
+            positions = Arrays.copyOf(positions, length);
+            Arrays.fill(positions, old, length, -1);
+        }
+        times[size] = epochSecond;
+        rows[size] = row;
+        positions[row] = size;
+        siftUp(size++);
+    }
+
+    void remove(int row) {
+        if (!contains(row)) {
+            return;
+        }
+        int index = positions[row];
+        positions[row] = -1;
+        size--;
+        if (index == size) {
+            return;
+        }
+        move(size, index);
+        siftDown(index);
+        siftUp(index);
+    }
+
+    private void siftUp(int index) {
+        long time = times[index];
+        int row = rows[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (times[parent] <= time) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        times[index] = time;
+        rows[index] = row;
+        positions[row] = index;
+    }
+
+    private void siftDown(int index) {
+        long time = times[index];
+        int row = rows[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && times[child + 1] < times[child]) {
+                child++;
+            }
+            if (times[child] >= time) {
+                break;
+            }
+            move(child, index);
+            index = child;
+        }
+        times[index] = time;
+        rows[index] = row;
+        positions[row] = index;
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        rows[to] = rows[from];
+        positions[rows[to]] = to;
+    }
+}
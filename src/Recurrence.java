@@ -0,0 +1,177 @@
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * When an alarm repeats. {@link #nextAfter} computes the single next occurrence on demand,
+ * so no recurrence ever materializes more than one instance. Once and daily alarms are
+ * served by the {@link AlarmTable} second-of-day index; the other kinds by an
+ * {@link OccurrenceQueue}.
+ */
+final class Recurrence {
+    enum Kind { ONCE, DAILY, DAYS_OF_WEEK, MONTHLY, INTERVAL }
+
+    static final int WEEKDAYS = 0b0011111;
+    static final int WEEKENDS = 0b1100000;
+    private static final Recurrence ONCE = new Recurrence(Kind.ONCE, 0, 0, 0);
+    private static final Recurrence DAILY = new Recurrence(Kind.DAILY, 0, 0, 0);
+
+    private final Kind kind;
+    private final int days;
+    private final long periodSeconds;
+    private final long anchorEpochSecond;
+
+    private Recurrence(Kind kind, int days, long periodSeconds, long anchorEpochSecond) {
+        this.kind = kind;
+        this.days = days;
+        this.periodSeconds = periodSeconds;
+        this.anchorEpochSecond = anchorEpochSecond;
+    }
+
+    /** Rings at the next occurrence of its time; stopping it removes the alarm. */
+    static Recurrence once() {
+        return ONCE;
+    }
+
+    static Recurrence daily() {
+        return DAILY;
+    }
+
+    /**
+     * On the days in {@code mask}, bit 0 being Monday and bit 6 Sunday.
+     */
+    static Recurrence daysOfWeek(int mask) {
+        if ((mask & 0x7F) == 0) {
+            throw new IllegalArgumentException("No days selected");
+        }
+        return new Recurrence(Kind.DAYS_OF_WEEK, mask & 0x7F, 0, 0);
+    }
+
+    static Recurrence weekly(DayOfWeek day) {
+        return daysOfWeek(1 << (day.getValue() - 1));
+    }
+
+    /**
+     * On {@code dayOfMonth} every month, or the month's last day when it is shorter.
+     */
+    static Recurrence monthly(int dayOfMonth) {
+        if (dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new IllegalArgumentException("Day of month out of range: " + dayOfMonth);
+        }
+        return new Recurrence(Kind.MONTHLY, dayOfMonth, 0, 0);
+    }
+
+    /**
+     * Every {@code periodSeconds}, counted from {@code anchorEpochSecond}.
+     */
+    static Recurrence every(long periodSeconds, long anchorEpochSecond) {
+        if (periodSeconds <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        return new Recurrence(Kind.INTERVAL, 0, periodSeconds, anchorEpochSecond);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    int getDays() {
+        return days;
+    }
+
+    long getPeriodSeconds() {
+        return periodSeconds;
+    }
+
+    long getAnchorEpochSecond() {
+        return anchorEpochSecond;
+    }
+
+    /** Whether the alarm repeats by time of day alone and lives in the second-of-day index. */
+    boolean isTimeOfDay() {
+        return kind == Kind.ONCE || kind == Kind.DAILY;
+    }
+
+    /**
+     * The first epoch second strictly after {@code afterEpochSecond} at which an alarm set
+     * for {@code secondOfDay} with this recurrence rings in {@code zone}.
+     */
+    long nextAfter(long afterEpochSecond, int secondOfDay, ZoneId zone) {
+        if (kind == Kind.INTERVAL) {
+            if (afterEpochSecond < anchorEpochSecond) {
+                return anchorEpochSecond;
+            }
+            long periods = (afterEpochSecond - anchorEpochSecond) / periodSeconds + 1;
+            return anchorEpochSecond + periods * periodSeconds;
+        }
+        LocalDate date = Instant.ofEpochSecond(afterEpochSecond).atZone(zone).toLocalDate();
+        // A day of week comes round within 8 days and a day of month within 13 months.
+        int limit = kind == Kind.MONTHLY ? 13 : 8;
+        for (int step = 0; step <= limit; step++) {
+            LocalDate candidate = candidate(date, step);
+            if (candidate == null) {
+                continue;
+            }
+            long epochSecond = ZonedDateTime.of(candidate.atStartOfDay().plusSeconds(secondOfDay), zone).toEpochSecond();
+            if (epochSecond > afterEpochSecond) {
+                return epochSecond;
+            }
+        }
+        throw new IllegalStateException("No occurrence for " + this);
+    }
+
+    private LocalDate candidate(LocalDate from, int step) {
+        switch (kind) {
+            case MONTHLY:
+                LocalDate month = from.withDayOfMonth(1).plusMonths(step);
+                return month.withDayOfMonth(Math.min(days, month.lengthOfMonth()));
+            case DAYS_OF_WEEK:
+                LocalDate day = from.plusDays(step);
+                return (days & (1 << (day.getDayOfWeek().getValue() - 1))) != 0 ? day : null;
+            default:
+                return from.plusDays(step);
+        }
+    }
+
+    /** A short label for the alarm list, e.g. "Weekdays" or "Every 15 min". */
+    String describe() {
+        switch (kind) {
+            case ONCE:
+                return "Once";
+            case DAILY:
+                return "Daily";
+            case MONTHLY:
+                return "Monthly on day " + days;
+            case INTERVAL:
+                return periodSeconds % 60 == 0 ? "Every " + periodSeconds / 60 + " min" : "Every " + periodSeconds + " s";
+            default:
+                if (days == WEEKDAYS) {
+                    return "Weekdays";
+                }
+                if (days == WEEKENDS) {
+                    return "Weekends";
+                }
+                if (days == 0x7F) {
+                    return "Every day";
+                }
+                StringBuilder text = new StringBuilder();
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if ((days & (1 << (day.getValue() - 1))) != 0) {
+                        if (text.length() > 0) {
+                            text.append(", ");
+                        }
+                        String name = day.name();
+                        text.append(name.charAt(0)).append(name.substring(1, 3).toLowerCase());
+                    }
+                }
+                return text.toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
@@ -0,0 +1,133 @@
+import javax.swing.*;
+import java.awt.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Repeat selector for the add and edit alarm windows: a kind combo box plus the one extra
+ * input that kind needs (a weekday, a day of the month or an interval in minutes).
+ */
+class RecurrenceChooser extends JPanel {
+    private static final String ONCE = "Once";
+    private static final String DAILY = "Daily";
+    private static final String WEEKDAYS = "Weekdays";
+    private static final String WEEKENDS = "Weekends";
+    private static final String WEEKLY = "Weekly";
+    private static final String MONTHLY = "Monthly";
+    private static final String INTERVAL = "Interval";
+
+    private final JComboBox<String> kindBox;
+    private final JComboBox<DayOfWeek> dayOfWeekBox = new JComboBox<>(DayOfWeek.values());
+    private final JComboBox<Integer> dayOfMonthBox;
+    private final JTextField intervalField = new JTextField("15", 4);
+    private final JLabel intervalLabel = new JLabel("minutes");
+    private final Recurrence custom;
+
+    RecurrenceChooser(Recurrence initial, Font font, Color accent) {
+        super(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        setOpaque(false);
+
+        Integer[] days = new Integer[31];
+        for (int i = 0; i < days.length; i++) days[i] = i + 1;
+        dayOfMonthBox = new JComboBox<>(days);
+
+        // A day-of-week set the combo box cannot express stays selectable as itself.
+        boolean expressible = initial.getKind() != Recurrence.Kind.DAYS_OF_WEEK
+                || initial.getDays() == Recurrence.WEEKDAYS || initial.getDays() == Recurrence.WEEKENDS
+                || Integer.bitCount(initial.getDays()) == 1;
+        custom = expressible ? null : initial;
+        kindBox = custom == null
+                ? new JComboBox<>(new String[]{ONCE, DAILY, WEEKDAYS, WEEKENDS, WEEKLY, MONTHLY, INTERVAL})
+                : new JComboBox<>(new String[]{custom.describe(), ONCE, DAILY, WEEKDAYS, WEEKENDS, WEEKLY, MONTHLY, INTERVAL});
+
+        dayOfWeekBox.setSelectedItem(LocalDate.now().getDayOfWeek());
+        dayOfMonthBox.setSelectedItem(LocalDate.now().getDayOfMonth());
+        select(initial);
+
+        for (JComponent component : new JComponent[]{kindBox, dayOfWeekBox, dayOfMonthBox, intervalField}) {
+            component.setFont(font);
+            component.setForeground(Color.BLACK);
+            component.setBorder(BorderFactory.createLineBorder(accent, 1));
+        }
+        intervalLabel.setFont(font);
+        intervalLabel.setForeground(Color.WHITE);
+
+        kindBox.addActionListener(e -> updateExtras());
+        add(kindBox);
+        add(dayOfWeekBox);
+        add(dayOfMonthBox);
+        add(intervalField);
+        add(intervalLabel);
+        updateExtras();
+    }
+
+    private void select(Recurrence recurrence) {
+        switch (recurrence.getKind()) {
+            case DAILY:
+                kindBox.setSelectedItem(DAILY);
+                break;
+            case MONTHLY:
+                kindBox.setSelectedItem(MONTHLY);
+                dayOfMonthBox.setSelectedItem(recurrence.getDays());
+                break;
+            case INTERVAL:
+                kindBox.setSelectedItem(INTERVAL);
+                intervalField.setText(String.valueOf(Math.max(1, recurrence.getPeriodSeconds() / 60)));
+                break;
+            case DAYS_OF_WEEK:
+                if (custom != null) {
+                    kindBox.setSelectedIndex(0);
+                } else if (recurrence.getDays() == Recurrence.WEEKDAYS) {
+                    kindBox.setSelectedItem(WEEKDAYS);
+                } else if (recurrence.getDays() == Recurrence.WEEKENDS) {
+                    kindBox.setSelectedItem(WEEKENDS);
+                } else {
+                    kindBox.setSelectedItem(WEEKLY);
+                    dayOfWeekBox.setSelectedItem(DayOfWeek.of(Integer.numberOfTrailingZeros(recurrence.getDays()) + 1));
+                }
+                break;
+            default:
+                kindBox.setSelectedItem(ONCE);
+        }
+    }
+
+    private void updateExtras() {
+        Object kind = kindBox.getSelectedItem();
+        dayOfWeekBox.setVisible(WEEKLY.equals(kind));
+        dayOfMonthBox.setVisible(MONTHLY.equals(kind));
+        intervalField.setVisible(INTERVAL.equals(kind));
+        intervalLabel.setVisible(INTERVAL.equals(kind));
+        revalidate();
+    }
+
+    /**
+     * The selected recurrence for an alarm at {@code secondOfDay}; an interval starts at that
+     * time today. Throws {@link IllegalArgumentException} for an interval that is not a
+     * positive number of minutes.
+     */
+    Recurrence getRecurrence(int secondOfDay) {
+        if (custom != null && kindBox.getSelectedIndex() == 0) {
+            return custom;
+        }
+        String kind = (String) kindBox.getSelectedItem();
+        switch (kind) {
+            case DAILY:
+                return Recurrence.daily();
+            case WEEKDAYS:
+                return Recurrence.daysOfWeek(Recurrence.WEEKDAYS);
+            case WEEKENDS:
+                return Recurrence.daysOfWeek(Recurrence.WEEKENDS);
+            case WEEKLY:
+                return Recurrence.weekly((DayOfWeek) dayOfWeekBox.getSelectedItem());
+            case MONTHLY:
+                return Recurrence.monthly((Integer) dayOfMonthBox.getSelectedItem());
+            case INTERVAL:
+                ZoneId zone = ZoneId.systemDefault();
+                long anchor = LocalDate.now(zone).atStartOfDay(zone).plusSeconds(secondOfDay).toEpochSecond();
+                return Recurrence.every(Integer.parseInt(intervalField.getText().trim()) * 60L, anchor);
+            default:
+                return Recurrence.once();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered images of the gradient buttons and the glow strip. Each skin is drawn once
+ * per size, color, label and device scale; after that a repaint (hover, press, window
+ * drag) is a single blit. A resized component simply gets a new entry while the old size
+ * ages out of the LRU; {@link #clear()} drops everything when the theme changes.
+ */
+final class SkinCache {
+    private static final int MAX_ENTRIES = 64;
+    private static final Map<String, BufferedImage> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private SkinCache() {
+    }
+
+    static void paintButton(Graphics g, AbstractButton button, Color mainColor, Font font) {
+        int width = button.getWidth();
+        int height = button.getHeight();
+        double scale = scaleOf(g);
+        String key = "button/" + width + 'x' + height + '/' + mainColor.getRGB() + '/' + font.getName() + '/'
+                + font.getStyle() + '/' + font.getSize() + '/' + button.getText() + '/' + scale;
+        BufferedImage skin = lookup(key);
+        if (skin == null) {
+            skin = newImage(width, height, scale);
+            Graphics2D g2d = skin.createGraphics();
+            g2d.scale(scale, scale);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            GradientPaint gradient = new GradientPaint(0, 0, mainColor.darker(), 0, height, mainColor.darker().darker());
+            g2d.setPaint(gradient);
+            g2d.fillRoundRect(0, 0, width - 1, height - 1, 20, 20);
+            g2d.setColor(new Color(mainColor.getRed(), mainColor.getGreen(), mainColor.getBlue(), 50));
+            g2d.setStroke(new BasicStroke(2));
+            g2d.drawRoundRect(2, 2, width - 5, height - 5, 20, 20);
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(font);
+            FontMetrics fm = g2d.getFontMetrics();
+            int textX = (width - fm.stringWidth(button.getText())) / 2;
+            int textY = (height + fm.getAscent() - fm.getDescent()) / 2;
+            g2d.drawString(button.getText(), textX, textY);
+            g2d.dispose();
+            store(key, skin);
+        }
+        g.drawImage(skin, 0, 0, width, height, null);
+    }
+
+    static void paintGlow(Graphics g, int width, int height, Color color) {
+        double scale = scaleOf(g);
+        String key = "glow/" + width + 'x' + height + '/' + color.getRGB() + '/' + scale;
+        BufferedImage skin = lookup(key);
+        if (skin == null) {
+            skin = newImage(width, height, scale);
+            Graphics2D g2d = skin.createGraphics();
+            g2d.scale(scale, scale);
+            GradientPaint glow = new GradientPaint(
+                    width / 2, 0, new Color(color.getRed(), color.getGreen(), color.getBlue(), 50),
+                    width / 2, height, new Color(color.getRed(), color.getGreen(), color.getBlue(), 0)
+            );
+            g2d.setPaint(glow);
+            g2d.fillRect(0, 0, width, height);
+            g2d.dispose();
+            store(key, skin);
+        }
+        g.drawImage(skin, 0, 0, width, height, null);
+    }
+
+    static synchronized void clear() {
+        CACHE.clear();
+    }
+
+    private static synchronized BufferedImage lookup(String key) {
+        return CACHE.get(key);
+    }
+
+    private static synchronized void store(String key, BufferedImage skin) {
+        CACHE.put(key, skin);
+    }
+
+    private static double scaleOf(Graphics g) {
+        return ((Graphics2D) g).getTransform().getScaleX();
+    }
+
+    private static BufferedImage newImage(int width, int height, double scale) {
+        return new BufferedImage(Math.max(1, (int) Math.ceil(width * scale)), Math.max(1, (int) Math.ceil(height * scale)),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+}
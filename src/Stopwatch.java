@@ -0,0 +1,79 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stopwatch state measured on the monotonic clock, independent of any window that shows it.
+ */
+class Stopwatch {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+    private final int id = NEXT_ID.getAndIncrement();
+    private boolean isRunning;
+    private long startNanos;
+    private long elapsedNanos;
+    private final LapStore laps = new LapStore();
+    private final LapStatistics statistics = new LapStatistics();
+
+    /** Unique for the life of the process. */
+    public int getId() {
+        return id;
+    }
+
+    public synchronized void start() {
+        if (!isRunning) {
+            isRunning = true;
+            startNanos = System.nanoTime();
+        }
+    }
+
+    public synchronized void pause() {
+        if (isRunning) {
+            isRunning = false;
+            elapsedNanos += System.nanoTime() - startNanos;
+        }
+    }
+
+    public synchronized void reset() {
+        isRunning = false;
+        elapsedNanos = 0;
+        laps.clear();
+        statistics.clear();
+    }
+
+    public synchronized boolean isRunning() {
+        return isRunning;
+    }
+
+    public synchronized long getElapsedMillis() {
+        long nanos = isRunning ? elapsedNanos + System.nanoTime() - startNanos : elapsedNanos;
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Records a lap at the current elapsed time and returns that total.
+     */
+    public synchronized long lap() {
+        long total = getElapsedMillis();
+        laps.add(total);
+        statistics.add(laps.getLapTime(laps.size() - 1));
+        return total;
+    }
+
+    public LapStore getLaps() {
+        return laps;
+    }
+
+    public LapStatistics getStatistics() {
+        return statistics;
+    }
+
+    public int getLapCount() {
+        return laps.size();
+    }
+
+    public long getLapTotal(int index) {
+        return laps.getTotal(index);
+    }
+
+    public long getLapTime(int index) {
+        return laps.getLapTime(index);
+    }
+}
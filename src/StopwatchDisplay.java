@@ -0,0 +1,86 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Renders a stopwatch's elapsed time into its two labels at most once per display frame.
+ * Each label is only touched when its visible text changes: the whole-seconds label once a
+ * second and the milliseconds label from a table of preformatted strings, so a frame costs
+ * no formatting and, most of the time, no allocation.
+ */
+class StopwatchDisplay {
+    static final int DEFAULT_FRAME_RATE = 60;
+    private static final String[] MILLIS_TEXT = new String[1000];
+
+    static {
+        for (int i = 0; i < MILLIS_TEXT.length; i++) {
+            MILLIS_TEXT[i] = String.format(".%03d", i);
+        }
+    }
+
+    private final JLabel timeLabel;
+    private final JLabel millisecondsLabel;
+    private final char[] clockChars = "00:00:00".toCharArray();
+    private long shownSecond = -1;
+    private int shownMillis = -1;
+
+    StopwatchDisplay(JLabel timeLabel, JLabel millisecondsLabel) {
+        this.timeLabel = timeLabel;
+        this.millisecondsLabel = millisecondsLabel;
+    }
+
+    /**
+     * Shows {@code elapsedMillis} and returns whether anything visible changed.
+     */
+    boolean render(long elapsedMillis) {
+        boolean changed = false;
+        long second = elapsedMillis / 1000;
+        if (second != shownSecond) {
+            shownSecond = second;
+            timeLabel.setText(formatClock(second));
+            changed = true;
+        }
+        int millis = (int) (elapsedMillis % 1000);
+        if (millis != shownMillis) {
+            shownMillis = millis;
+            millisecondsLabel.setText(MILLIS_TEXT[millis]);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private String formatClock(long totalSeconds) {
+        long hours = totalSeconds / 3600;
+        if (hours > 99) {
+            return String.format("%02d:%02d:%02d", hours, (totalSeconds / 60) % 60, totalSeconds % 60);
+        }
+        writeTwoDigits(0, (int) hours);
+        writeTwoDigits(3, (int) ((totalSeconds / 60) % 60));
+        writeTwoDigits(6, (int) (totalSeconds % 60));
+        return new String(clockChars);
+    }
+
+    private void writeTwoDigits(int index, int value) {
+        clockChars[index] = (char) ('0' + value / 10);
+        clockChars[index + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * The frame rate to pace rendering at: the {@code clock.stopwatch.fps} system property if
+     * set, otherwise the refresh rate of the screen {@code component} is on (or the default
+     * screen), falling back to 60 Hz when the display does not report one.
+     */
+    static int frameRateFor(Component component) {
+        Integer configured = Integer.getInteger("clock.stopwatch.fps");
+        if (configured != null && configured > 0) {
+            return configured;
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_FRAME_RATE;
+        }
+        GraphicsConfiguration configuration = component == null ? null : component.getGraphicsConfiguration();
+        GraphicsDevice device = configuration != null ? configuration.getDevice()
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        int refreshRate = device.getDisplayMode().getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_FRAME_RATE : refreshRate;
+    }
+}
@@ -0,0 +1,122 @@
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A voice that reads its tune from the file while it plays, for tunes too large to decode
+ * into memory. An "audio-stream" thread keeps a 256 KB ring (about three seconds of mixer
+ * audio) topped up and loops by reopening the file; the mixer reads from the other end and
+ * plays silence rather than blocking if the disk falls behind.
+ */
+class StreamingVoice extends AudioMixer.Voice {
+    static final int BUFFER_BYTES = 256 * 1024;
+    private static final int READ_BYTES = 16 * 1024;
+    private static final long FILL_MILLIS = 50;
+    private static final ScheduledExecutorService FILLER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "audio-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File file;
+    private final byte[] ring = new byte[BUFFER_BYTES];
+    private final byte[] readBuffer = new byte[READ_BYTES];
+    // Bytes ever written by the filler and read by the mixer; their difference is the fill level.
+    private volatile long written;
+    private volatile long read;
+    private volatile boolean endOfTune;
+    private AudioInputStream stream;
+    private volatile ScheduledFuture<?> filling;
+    private boolean closed;
+
+    private StreamingVoice(File file, boolean loop) {
+        super(loop);
+        this.file = file;
+    }
+
+    /**
+     * Opens {@code file}, buffers its start and begins refilling in the background. Throws
+     * if the file cannot be read or converted to the mixer's format.
+     */
+    static StreamingVoice open(File file, boolean loop) throws IOException, UnsupportedAudioFileException {
+        StreamingVoice voice = new StreamingVoice(file, loop);
+        voice.stream = AudioCache.openPcm(file);
+        voice.filling = FILLER.scheduleWithFixedDelay(voice::fill, 0, FILL_MILLIS, TimeUnit.MILLISECONDS);
+        return voice;
+    }
+
+    // Filler thread: read until the ring is full or the tune ends.
+    private synchronized void fill() {
+        if (closed) {
+            return;
+        }
+        try {
+            boolean reopened = false;
+            while (!endOfTune && BUFFER_BYTES - (written - read) >= READ_BYTES) {
+                int count = stream.read(readBuffer, 0, READ_BYTES);
+                if (count < 0) {
+                    stream.close();
+                    if (!loop || reopened) {
+                        // Not looping, or the file is empty: nothing more will come.
+                        endOfTune = true;
+                        return;
+                    }
+                    stream = AudioCache.openPcm(file);
+                    reopened = true;
+                    continue;
+                }
+                count &= ~1;
+                int start = (int) (written % BUFFER_BYTES);
+                int first = Math.min(count, BUFFER_BYTES - start);
+                System.arraycopy(readBuffer, 0, ring, start, first);
+                System.arraycopy(readBuffer, first, ring, 0, count - first);
+                written += count;
+                if (count > 0) {
+                    reopened = false;
+                }
+            }
+        } catch (IOException | UnsupportedAudioFileException e) {
+            e.printStackTrace();
+            endOfTune = true;
+        }
+    }
+
+    @Override
+    boolean mixInto(int[] sums, int frames, int gain) {
+        long readPosition = read;
+        int samples = (int) Math.min(frames, (written - readPosition) / 2);
+        int position = (int) (readPosition % BUFFER_BYTES);
+        for (int i = 0; i < samples; i++) {
+            int sample = (ring[position] & 0xFF) | (ring[position + 1] << 8);
+            sums[i] += sample * gain >> 8;
+            position += 2;
+            if (position == BUFFER_BYTES) {
+                position = 0;
+            }
+        }
+        read = readPosition + samples * 2L;
+        // An underrun plays silence; only a drained, finished stream ends the voice.
+        return samples == frames || !endOfTune || written != read;
+    }
+
+    @Override
+    void close() {
+        // Never waits for a fill in progress: the mixer thread must not block on the disk.
+        filling.cancel(false);
+        FILLER.execute(this::closeStream);
+    }
+
+    private synchronized void closeStream() {
+        closed = true;
+        try {
+            stream.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires once per wall-clock second, scheduled for the next true second boundary on the
+ * executor's monotonic (nanoTime) clock instead of a fixed 1000 ms period, so it never
+ * accumulates drift. If a tick runs late enough to skip seconds, the listener gets the
+ * whole gap in one call.
+ */
+class TickSource {
+    interface Listener {
+        /**
+         * Called on the tick thread. Every epoch second in {@code (fromSecond, toSecond]}
+         * has elapsed since the previous call.
+         */
+        void onTick(long fromSecond, long toSecond);
+    }
+
+    private final ScheduledExecutorService executor;
+    private final Listener listener;
+    private final Runnable tickTask = this::tick;
+    private ScheduledFuture<?> pending;
+    private volatile boolean running;
+    private long lastSecond;
+    private long scheduledNanos;
+
+    private volatile long tickCount;
+    private volatile long missedSeconds;
+    private volatile long lastLatenessNanos;
+    private volatile long maxLatenessNanos;
+    private volatile long totalLatenessNanos;
+
+    public TickSource(ScheduledExecutorService executor, Listener listener) {
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastSecond = Math.floorDiv(System.currentTimeMillis(), 1000);
+        scheduleNext();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        if (!running) {
+            return;
+        }
+        long delayNanos = (1000 - Math.floorMod(System.currentTimeMillis(), 1000)) * 1_000_000L;
+        scheduledNanos = System.nanoTime() + delayNanos;
+        pending = executor.schedule(tickTask, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void tick() {
+        long lateness = System.nanoTime() - scheduledNanos;
+        long second = Math.floorDiv(System.currentTimeMillis(), 1000);
+        try {
+            if (second > lastSecond) {
+                recordLateness(lateness);
+                if (second - lastSecond > 1) {
+                    missedSeconds += second - lastSecond - 1;
+                }
+                long from = lastSecond;
+                lastSecond = second;
+                listener.onTick(from, second);
+            } else if (second < lastSecond) {
+                // Wall clock was set back; resynchronise rather than wait for it to catch up.
+                lastSecond = second;
+                listener.onTick(second - 1, second);
+            }
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    private void recordLateness(long lateness) {
+        ClockMetrics.ENGINE_TICK.record(lateness);
+        tickCount++;
+        lastLatenessNanos = lateness;
+        totalLatenessNanos += lateness;
+        if (lateness > maxLatenessNanos) {
+            maxLatenessNanos = lateness;
+        }
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getMissedSeconds() {
+        return missedSeconds;
+    }
+
+    public long getLastLatenessNanos() {
+        return lastLatenessNanos;
+    }
+
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos;
+    }
+
+    public long getMeanLatenessNanos() {
+        long count = tickCount;
+        return count == 0 ? 0 : totalLatenessNanos / count;
+    }
+}
@@ -0,0 +1,23 @@
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+
+/**
+ * Replaces the system event queue to time every event's dispatch on the EDT into
+ * {@link ClockMetrics#EDT_DISPATCH}, so a stalled EDT shows up as a long dispatch.
+ */
+class TimedEventQueue extends EventQueue {
+    static void install() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimedEventQueue());
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            ClockMetrics.EDT_DISPATCH.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The time in a list of zones, all derived from one epoch second per tick. Each zone keeps a
+ * {@link ZoneOffsetCache}, so a tick is an offset range check and a few divisions per zone;
+ * the offset label is only rebuilt when a zone crosses one of its transitions.
+ */
+class WorldClock {
+    private static final int SECONDS_PER_DAY = 86400;
+    private final List<Zone> zones = new ArrayList<>();
+    private final ZoneOffsetCache home = new ZoneOffsetCache();
+    private long lastSecond = Long.MIN_VALUE;
+    private boolean labelsChanged;
+
+    /**
+     * One row of the world clock. The arrays and strings are rewritten in place by
+     * {@link WorldClock#update(long)} and read by the panel on the same thread.
+     */
+    static final class Zone {
+        final ZoneId zoneId;
+        final String label;
+        final char[] time = "00:00:00".toCharArray();
+        private final ZoneOffsetCache offsets;
+        private int offsetSeconds = Integer.MIN_VALUE;
+        private String offsetText = "";
+        private int dayDelta;
+
+        private Zone(ZoneId zoneId) {
+            this.zoneId = zoneId;
+            this.offsets = new ZoneOffsetCache(zoneId);
+            this.label = labelOf(zoneId);
+        }
+
+        String getOffsetText() {
+            return offsetText;
+        }
+
+        /**
+         * Whole days this zone's date is ahead of (positive) or behind the local date.
+         */
+        int getDayDelta() {
+            return dayDelta;
+        }
+    }
+
+    Zone addZone(ZoneId zoneId) {
+        Zone zone = new Zone(zoneId);
+        zones.add(zone);
+        lastSecond = Long.MIN_VALUE;
+        return zone;
+    }
+
+    void removeZone(int index) {
+        zones.remove(index);
+    }
+
+    List<Zone> getZones() {
+        return zones;
+    }
+
+    int size() {
+        return zones.size();
+    }
+
+    /**
+     * Brings every zone to {@code epochSecond}. Returns {@code false} when nothing changed,
+     * otherwise {@code true}; {@link #labelsChanged()} says whether more than the times moved.
+     */
+    boolean update(long epochSecond) {
+        if (epochSecond == lastSecond) {
+            return false;
+        }
+        lastSecond = epochSecond;
+        labelsChanged = false;
+        long homeDay = Math.floorDiv(home.toLocalSecond(epochSecond), (long) SECONDS_PER_DAY);
+        for (Zone zone : zones) {
+            int offset = zone.offsets.offsetAt(epochSecond);
+            long local = epochSecond + offset;
+            int dayDelta = (int) (Math.floorDiv(local, (long) SECONDS_PER_DAY) - homeDay);
+            if (offset != zone.offsetSeconds || dayDelta != zone.dayDelta) {
+                zone.offsetSeconds = offset;
+                zone.offsetText = formatOffset(offset);
+                zone.dayDelta = dayDelta;
+                labelsChanged = true;
+            }
+            int secondOfDay = (int) Math.floorMod(local, (long) SECONDS_PER_DAY);
+            writeTwoDigits(zone.time, 0, secondOfDay / 3600);
+            writeTwoDigits(zone.time, 3, secondOfDay / 60 % 60);
+            writeTwoDigits(zone.time, 6, secondOfDay % 60);
+        }
+        return true;
+    }
+
+    boolean labelsChanged() {
+        return labelsChanged;
+    }
+
+    private static void writeTwoDigits(char[] buffer, int index, int value) {
+        buffer[index] = (char) ('0' + value / 10);
+        buffer[index + 1] = (char) ('0' + value % 10);
+    }
+
+    static String formatOffset(int offsetSeconds) {
+        if (offsetSeconds == 0) {
+            return "UTC";
+        }
+        int abs = Math.abs(offsetSeconds);
+        return String.format("UTC%s%02d:%02d", offsetSeconds < 0 ? "-" : "+", abs / 3600, abs / 60 % 60);
+    }
+
+    /**
+     * "America/Argentina/Buenos_Aires" becomes "Buenos Aires"; ids without a region are kept.
+     */
+    static String labelOf(ZoneId zoneId) {
+        String id = zoneId.getId();
+        return id.substring(id.lastIndexOf('/') + 1).replace('_', ' ');
+    }
+}
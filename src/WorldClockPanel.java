@@ -0,0 +1,147 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Paints a {@link WorldClock} as fixed-height rows. A tick repaints only the time column
+ * unless a zone's offset or date changed, so a wall of thirty zones costs one small repaint.
+ */
+class WorldClockPanel extends JComponent implements Scrollable {
+    private static final int ROW_HEIGHT = 44;
+    private static final int TIME_WIDTH = 150;
+    private final WorldClock worldClock;
+    private final Font labelFont = new Font("Segoe UI", Font.BOLD, 16);
+    private final Font offsetFont = new Font("Segoe UI", Font.PLAIN, 13);
+    private Font timeFont = DigitalFont.get(30f);
+    private final Color accent = new Color(3, 218, 247);
+    private int selectedIndex = -1;
+
+    WorldClockPanel(WorldClock worldClock) {
+        this.worldClock = worldClock;
+        setOpaque(true);
+        setForeground(Color.WHITE);
+        setBackground(new Color(18, 18, 18));
+        DigitalFont.whenLoaded(font -> {
+            timeFont = font.deriveFont(30f);
+            repaint();
+        });
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int index = e.getY() / ROW_HEIGHT;
+                setSelectedIndex(index < worldClock.size() ? index : -1);
+            }
+        });
+    }
+
+    /**
+     * Moves every zone to {@code epochSecond} and repaints what changed.
+     */
+    void tick(long epochSecond) {
+        if (!worldClock.update(epochSecond)) {
+            return;
+        }
+        if (worldClock.labelsChanged()) {
+            repaint();
+        } else {
+            repaint(getWidth() - TIME_WIDTH, 0, TIME_WIDTH, worldClock.size() * ROW_HEIGHT);
+        }
+    }
+
+    /**
+     * Called after zones are added or removed.
+     */
+    void zonesChanged() {
+        if (selectedIndex >= worldClock.size()) {
+            selectedIndex = -1;
+        }
+        revalidate();
+        repaint();
+    }
+
+    int getSelectedIndex() {
+        return selectedIndex;
+    }
+
+    void setSelectedIndex(int index) {
+        selectedIndex = index;
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(460, Math.max(1, worldClock.size()) * ROW_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Rectangle clip = g.getClipBounds();
+        g2.setColor(getBackground());
+        if (clip == null) {
+            g2.fillRect(0, 0, getWidth(), getHeight());
+        } else {
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+        }
+        int first = clip == null ? 0 : clip.y / ROW_HEIGHT;
+        int last = clip == null ? worldClock.size() - 1 : (clip.y + clip.height - 1) / ROW_HEIGHT;
+        boolean timesOnly = clip != null && clip.x >= getWidth() - TIME_WIDTH;
+        int timeX = getWidth() - TIME_WIDTH;
+
+        for (int i = first; i <= last && i < worldClock.size(); i++) {
+            WorldClock.Zone zone = worldClock.getZones().get(i);
+            int top = i * ROW_HEIGHT;
+            if (i == selectedIndex) {
+                g2.setColor(new Color(accent.getRed(), accent.getGreen(), accent.getBlue(), 50));
+                g2.fillRect(0, top, getWidth(), ROW_HEIGHT);
+            }
+            if (!timesOnly) {
+                g2.setColor(getForeground());
+                g2.setFont(labelFont);
+                g2.drawString(zone.label, 10, top + 20);
+                g2.setColor(Color.GRAY);
+                g2.setFont(offsetFont);
+                g2.drawString(zone.getOffsetText() + dayText(zone.getDayDelta()), 10, top + 37);
+                g2.setColor(new Color(40, 40, 40));
+                g2.drawLine(0, top + ROW_HEIGHT - 1, getWidth(), top + ROW_HEIGHT - 1);
+            }
+            g2.setColor(accent);
+            g2.setFont(timeFont);
+            g2.drawChars(zone.time, 0, zone.time.length, timeX, top + 32);
+        }
+    }
+
+    private static String dayText(int dayDelta) {
+        if (dayDelta == 0) {
+            return "";
+        }
+        return dayDelta > 0 ? "  ·  Tomorrow" : "  ·  Yesterday";
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(460, Math.min(8, Math.max(1, worldClock.size())) * ROW_HEIGHT);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return ROW_HEIGHT;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(ROW_HEIGHT, visibleRect.height / ROW_HEIGHT * ROW_HEIGHT);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * A zone's UTC offset, looked up once and then reused until the zone's next transition, so
+ * converting an epoch second to local time is normally a range check and an addition.
+ */
+class ZoneOffsetCache {
+    private final ZoneId zone;
+    private int offsetSeconds;
+    private long validFrom = Long.MAX_VALUE;
+    private long validUntil = Long.MIN_VALUE;
+
+    /**
+     * Follows the system default zone, re-read whenever the cached offset expires.
+     */
+    ZoneOffsetCache() {
+        this(null);
+    }
+
+    ZoneOffsetCache(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public ZoneId getZone() {
+        return zone != null ? zone : ZoneId.systemDefault();
+    }
+
+    public int offsetAt(long epochSecond) {
+        if (epochSecond < validFrom || epochSecond >= validUntil) {
+            refresh(epochSecond);
+        }
+        return offsetSeconds;
+    }
+
+    /**
+     * Seconds since the local epoch, i.e. {@code epochSecond} shifted by the zone's offset.
+     */
+    public long toLocalSecond(long epochSecond) {
+        return epochSecond + offsetAt(epochSecond);
+    }
+
+    // Only runs on the first lookup and at the zone's transitions.
+    private void refresh(long second) {
+        ZoneRules rules = getZone().getRules();
+        Instant instant = Instant.ofEpochSecond(second);
+        offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        validFrom = previous == null ? Long.MIN_VALUE : previous.getInstant().getEpochSecond();
+        validUntil = next == null ? Long.MAX_VALUE : next.getInstant().getEpochSecond();
+    }
+}